@@ -0,0 +1,106 @@
+package ru.practicum.shareit.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Считает события JFR jdk.VirtualThreadPinned: виртуальный поток заблокировался внутри synchronized
+ * или нативного кадра и занял поток-носитель. Счётчик jvm.threads.virtual.pinned размечен библиотекой,
+ * в коде которой произошла блокировка.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Map<String, String> SOURCES = new LinkedHashMap<>();
+
+    static {
+        SOURCES.put("org.hibernate.", "hibernate");
+        SOURCES.put("org.apache.hc.", "httpclient");
+        SOURCES.put("com.zaxxer.hikari.", "hikari");
+        SOURCES.put("org.postgresql.", "jdbc");
+        SOURCES.put("org.h2.", "jdbc");
+        SOURCES.put("org.apache.catalina.", "tomcat");
+        SOURCES.put("org.apache.tomcat.", "tomcat");
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${shareit.virtual-threads.pinned-threshold:1ms}") Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Мониторинг закрепления виртуальных потоков включён, порог {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String source = sourceOf(event);
+        counters.computeIfAbsent(source, s -> Counter.builder("jvm.threads.virtual.pinned")
+                        .description("Блокировки виртуальных потоков с закреплением потока-носителя")
+                        .tag("source", s)
+                        .register(meterRegistry))
+                .increment();
+        log.debug("Виртуальный поток закреплён на {} в {}", event.getDuration(), source);
+    }
+
+    private static String sourceOf(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "unknown";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod() == null || frame.getMethod().getType() == null) {
+                continue;
+            }
+            String className = frame.getMethod().getType().getName();
+            for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+                if (className.startsWith(source.getKey())) {
+                    return source.getValue();
+                }
+            }
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,29 @@
+#!/usr/bin/env bash
+# Сравнение пропускной способности блокирующего (MVC) и реактивного (WebFlux) движков шлюза.
+# Сервер должен быть уже запущен на shareit-server.url; шлюз поднимается по очереди в обоих режимах.
+# Использование: gateway/bench/compare-engines.sh [путь] [параллельность] [секунды]
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+GATEWAY_JAR=gateway/target/shareit-gateway-0.0.1-SNAPSHOT.jar
+PATH_TO_HIT=${1:-/users}
+CONCURRENCY=${2:-400}
+SECONDS_PER_RUN=${3:-30}
+
+run_engine() {
+    local profile=$1
+    java -jar "$GATEWAY_JAR" --spring.profiles.active="$profile" --logging.level.root=WARN \
+        --logging.level.org.springframework.web.client.RestTemplate=WARN \
+        --logging.level.org.springframework.web.reactive.function.client.ExchangeFunctions=WARN &
+    local pid=$!
+    until curl -sf http://localhost:8080/actuator/health > /dev/null; do sleep 1; done
+    # Прогрев JIT и пулов соединений
+    java gateway/bench/EngineThroughput.java "http://localhost:8080$PATH_TO_HIT" "$CONCURRENCY" 5 > /dev/null
+    printf '%-9s ' "$profile"
+    java gateway/bench/EngineThroughput.java "http://localhost:8080$PATH_TO_HIT" "$CONCURRENCY" "$SECONDS_PER_RUN"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+run_engine default
+run_engine reactive
@@ -1,31 +1,40 @@
 package ru.practicum.shareit.booking;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.EventStreamRelay;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final EventStreamRelay eventStreamRelay;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory shareItRequestFactory, EventStreamRelay eventStreamRelay) {
+        super(serverUrl, API_PREFIX, builder, shareItRequestFactory);
+        this.eventStreamRelay = eventStreamRelay;
+    }
+
+    public ResponseEntity<ResponseBodyEmitter> streamEvents(long userId) throws IOException {
+        return eventStreamRelay.relay(API_PREFIX + "/events", userId);
     }
 
     public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
@@ -37,14 +46,14 @@ public class BookingClient extends BaseClient {
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> foundBookingsByState(Long bookerId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("?state={state}", bookerId, parameters);
+    public ResponseEntity<Object> foundBookingsByState(Long bookerId, String state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+        return get("?state={state}&cursor={cursor}&size={size}", bookerId, parameters);
     }
 
-    public ResponseEntity<Object> foundUsersBookingsByState(Long bookerId, String state) {
-        Map<String, Object> parameters = Map.of("state", state);
-        return get("/owner?state={state}", bookerId, parameters);
+    public ResponseEntity<Object> foundUsersBookingsByState(Long bookerId, String state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+        return get("/owner?state={state}&cursor={cursor}&size={size}", bookerId, parameters);
     }
 
     public ResponseEntity<Object> reviewBooking(Long userId, Long bookingId, Boolean approved) {
@@ -53,6 +62,10 @@ public class BookingClient extends BaseClient {
         return patch(url + "?approved={approved}", userId, parameters, parameters);
     }
 
+    public ResponseEntity<Object> reviewBookings(Long userId, List<BookingReviewDto> reviews) {
+        return patch("/bulk", userId, reviews);
+    }
+
     public ResponseEntity<Object> bookItem(long userId, BookingInDto requestDto) {
         return post("", userId, requestDto);
     }
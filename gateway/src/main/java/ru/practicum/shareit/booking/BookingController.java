@@ -1,21 +1,30 @@
 package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
 import lombok.extern.slf4j.Slf4j;
 import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.utils.HttpHeaders;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Optional;
 
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @AllArgsConstructor
 @Slf4j
@@ -30,6 +39,19 @@ public class BookingController {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @GetMapping("/events")
+    public ResponseEntity<ResponseBodyEmitter> streamEvents(@RequestHeader(HttpHeaders.SHARER_USER_ID) long userId)
+            throws IOException {
+        log.info("Subscribing to booking events, userId={}", userId);
+        return bookingClient.streamEvents(userId);
+    }
+
+    // Клиент потока событий отключился: ответ уже начат, сообщать об ошибке некому
+    @ExceptionHandler(IOException.class)
+    public void clientDisconnected(IOException e) {
+        log.debug("Booking events client disconnected: {}", e.getMessage());
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader(HttpHeaders.SHARER_USER_ID) long userId,
                                              @PathVariable Long bookingId) {
@@ -38,7 +60,9 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> foundBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId, @RequestParam Optional<String> stateOp) {
+    public ResponseEntity<Object> foundBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId, @RequestParam(name = "state") Optional<String> stateOp,
+                                                       @RequestParam Optional<String> cursor,
+                                                       @Positive @RequestParam(defaultValue = "10") Integer size) {
         String state;
         if (stateOp.isEmpty()) {
             state = "ALL";
@@ -46,11 +70,13 @@ public class BookingController {
             BookingState stateParam = BookingState.from(stateOp.get()).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateOp.get()));
             state = stateOp.get();
         }
-        return bookingClient.foundBookingsByState(bookerId, state);
+        return bookingClient.foundBookingsByState(bookerId, state, cursor.orElse(""), size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> foundUsersBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId, @RequestParam Optional<String> stateOp) {
+    public ResponseEntity<Object> foundUsersBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId, @RequestParam(name = "state") Optional<String> stateOp,
+                                                            @RequestParam Optional<String> cursor,
+                                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
         String state;
         if (stateOp.isEmpty()) {
             state = "ALL";
@@ -58,7 +84,14 @@ public class BookingController {
             BookingState stateParam = BookingState.from(stateOp.get()).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateOp.get()));
             state = stateOp.get();
         }
-        return bookingClient.foundUsersBookingsByState(bookerId, state);
+        return bookingClient.foundUsersBookingsByState(bookerId, state, cursor.orElse(""), size);
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<Object> reviewBookings(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                 @RequestBody @NotEmpty @Size(max = 100) List<@Valid BookingReviewDto> reviews) {
+        log.info("Reviewing {} bookings, userId={}", reviews.size(), userId);
+        return bookingClient.reviewBookings(userId, reviews);
     }
 
     @PatchMapping("/{bookingId}")
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ReactiveEventStreamRelay;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class BookingReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/bookings";
+
+    private final ReactiveEventStreamRelay eventStreamRelay;
+
+    public BookingReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                 ReactiveEventStreamRelay eventStreamRelay) {
+        super(serverUrl, API_PREFIX, builder);
+        this.eventStreamRelay = eventStreamRelay;
+    }
+
+    public Mono<Void> streamEvents(long userId, ServerHttpResponse response) {
+        return eventStreamRelay.relay(API_PREFIX + "/events", userId, response);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundBookingsByState(Long bookerId, String state, String cursor,
+                                                                       Integer size) {
+        Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+        return get("?state={state}&cursor={cursor}&size={size}", bookerId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundUsersBookingsByState(Long bookerId, String state, String cursor,
+                                                                            Integer size) {
+        Map<String, Object> parameters = Map.of("state", state, "cursor", cursor, "size", size);
+        return get("/owner?state={state}&cursor={cursor}&size={size}", bookerId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> reviewBooking(Long userId, Long bookingId, Boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        String url = String.format("/%d", bookingId);
+        return patch(url + "?approved={approved}", userId, parameters, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> reviewBookings(Long userId, List<BookingReviewDto> reviews) {
+        return patch("/bulk", userId, reviews);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(long userId, BookingInDto requestDto) {
+        return post("", userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+}
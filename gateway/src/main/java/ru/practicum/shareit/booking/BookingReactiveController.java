@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.utils.HttpHeaders;
+
+import java.util.List;
+import java.util.Optional;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/bookings")
+@AllArgsConstructor
+@Slf4j
+@Validated
+public class BookingReactiveController {
+    private final BookingReactiveClient bookingClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> bookItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) long userId,
+                                                           @RequestBody @Valid BookingInDto requestDto) {
+        log.info("Creating booking {}, userId={}", requestDto, userId);
+        return bookingClient.bookItem(userId, requestDto);
+    }
+
+    @GetMapping("/events")
+    public Mono<Void> streamEvents(@RequestHeader(HttpHeaders.SHARER_USER_ID) long userId,
+                                   ServerHttpResponse response) {
+        log.info("Subscribing to booking events, userId={}", userId);
+        return bookingClient.streamEvents(userId, response);
+    }
+
+    @GetMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getBooking(@RequestHeader(HttpHeaders.SHARER_USER_ID) long userId,
+                                                             @PathVariable Long bookingId) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.getBooking(userId, bookingId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId,
+                                                                       @RequestParam(name = "state") Optional<String> stateOp,
+                                                                       @RequestParam Optional<String> cursor,
+                                                                       @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return bookingClient.foundBookingsByState(bookerId, validState(stateOp), cursor.orElse(""), size);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundUsersBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId,
+                                                                            @RequestParam(name = "state") Optional<String> stateOp,
+                                                                            @RequestParam Optional<String> cursor,
+                                                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return bookingClient.foundUsersBookingsByState(bookerId, validState(stateOp), cursor.orElse(""), size);
+    }
+
+    @PatchMapping("/bulk")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> reviewBookings(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                                 @RequestBody @NotEmpty @Size(max = 100)
+                                                                 List<@Valid BookingReviewDto> reviews) {
+        log.info("Reviewing {} bookings, userId={}", reviews.size(), userId);
+        return bookingClient.reviewBookings(userId, reviews);
+    }
+
+    @PatchMapping("/{bookingId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> reviewBooking(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                                @PathVariable("bookingId") Long bookingId,
+                                                                @RequestParam(required = true) Boolean approved) {
+        return bookingClient.reviewBooking(userId, bookingId, approved);
+    }
+
+    private static String validState(Optional<String> stateOp) {
+        if (stateOp.isEmpty()) {
+            return "ALL";
+        }
+        BookingState.from(stateOp.get()).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateOp.get()));
+        return stateOp.get();
+    }
+}
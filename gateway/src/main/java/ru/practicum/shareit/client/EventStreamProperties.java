@@ -0,0 +1,17 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.event-stream")
+public class EventStreamProperties {
+    // Поток событий держит соединение с сервером всё время подписки, поэтому у потоков свой пул
+    private int maxConnections = 2000;
+    // Сервер шлёт комментарий-пинг каждые 15 секунд; дольше молчащее соединение считается оборванным
+    private Duration readTimeout = Duration.ofSeconds(60);
+}
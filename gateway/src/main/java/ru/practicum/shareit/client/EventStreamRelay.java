@@ -0,0 +1,143 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Проксирует поток server-sent events сервера клиенту шлюза.
+ * Каждый поток держит соединение из отдельного пула, чтобы тысячи подписок не отнимали соединения у обычных запросов,
+ * и виртуальный поток, который перекладывает байты по мере поступления и почти ничего не стоит, пока сервер молчит.
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class EventStreamRelay implements DisposableBean {
+    private final String serverUrl;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService relays = Executors.newVirtualThreadPerTaskExecutor();
+
+    public EventStreamRelay(@Value("${shareit-server.url}") String serverUrl, HttpClientPoolProperties pool,
+                            EventStreamProperties properties, MeterRegistry meterRegistry) {
+        this.serverUrl = serverUrl;
+        Timeout readTimeout = Timeout.ofMilliseconds(properties.getReadTimeout().toMillis());
+        connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(pool.getConnectTimeout().toMillis()))
+                        .setSocketTimeout(readTimeout)
+                        .build())
+                .build();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(pool.getConnectionRequestTimeout().toMillis()))
+                        .setResponseTimeout(readTimeout)
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "shareit-server-events")
+                .bindTo(meterRegistry);
+    }
+
+    public ResponseEntity<ResponseBodyEmitter> relay(String path, long userId) throws IOException {
+        HttpGet request = new HttpGet(serverUrl + path);
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        request.setHeader(ru.practicum.shareit.utils.HttpHeaders.SHARER_USER_ID, String.valueOf(userId));
+        ClassicHttpResponse upstream = httpClient.executeOpen(null, request, null);
+
+        // Срок жизни потока задаёт сервер: закончив его, он закрывает соединение, и клиент переподключается
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        emitter.onCompletion(() -> abort(request, upstream));
+        emitter.onError(e -> abort(request, upstream));
+        MediaType contentType = contentType(upstream);
+
+        if (upstream.getCode() != 200) {
+            // Ошибка сервера уходит клиенту как есть
+            byte[] body = upstream.getEntity() != null ? EntityUtils.toByteArray(upstream.getEntity()) : new byte[0];
+            abort(request, upstream);
+            if (body.length > 0) {
+                emitter.send(body, contentType);
+            }
+            emitter.complete();
+            return ResponseEntity.status(upstream.getCode()).contentType(contentType).body(emitter);
+        }
+
+        relays.execute(() -> copy(request, upstream, emitter));
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .cacheControl(CacheControl.noCache())
+                .body(emitter);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        relays.shutdownNow();
+        httpClient.close();
+    }
+
+    private void copy(HttpGet request, ClassicHttpResponse upstream, ResponseBodyEmitter emitter) {
+        byte[] buffer = new byte[8192];
+        try {
+            InputStream in = upstream.getEntity().getContent();
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                try {
+                    emitter.send(Arrays.copyOf(buffer, read), MediaType.TEXT_EVENT_STREAM);
+                } catch (IOException | IllegalStateException e) {
+                    // Клиент отключился: контейнер сам завершит запрос, соединение с сервером закрываем
+                    log.debug("Клиент потока событий отключился: {}", e.getMessage());
+                    return;
+                }
+            }
+            emitter.complete();
+        } catch (IOException e) {
+            log.debug("Сервер оборвал поток событий: {}", e.getMessage());
+            emitter.complete();
+        } finally {
+            abort(request, upstream);
+        }
+    }
+
+    private static MediaType contentType(ClassicHttpResponse upstream) {
+        Header header = upstream.getFirstHeader(HttpHeaders.CONTENT_TYPE);
+        return header != null ? MediaType.parseMediaType(header.getValue()) : MediaType.TEXT_EVENT_STREAM;
+    }
+
+    // Закрытие потока тела дочитало бы бесконечный ответ до конца, поэтому запрос отменяется и соединение рвётся
+    private static void abort(HttpGet request, ClassicHttpResponse upstream) {
+        request.cancel();
+        try {
+            upstream.close();
+        } catch (IOException e) {
+            log.debug("Не удалось закрыть соединение потока событий: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-server.http-client")
+public class HttpClientPoolProperties {
+    // Общий лимит соединений пула
+    private int maxTotal = 200;
+    // Лимит соединений на один маршрут (все клиенты ходят на shareit-server.url)
+    private int maxPerRoute = 100;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    // Сколько ждать свободное соединение из пула
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    // Простаивающие дольше этого соединения закрываются фоновым потоком
+    private Duration idleEviction = Duration.ofSeconds(30);
+    // Верхняя граница keep-alive, даже если сервер разрешает держать соединение дольше
+    private Duration keepAlive = Duration.ofSeconds(30);
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+}
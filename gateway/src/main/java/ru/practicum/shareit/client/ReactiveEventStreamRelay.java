@@ -0,0 +1,72 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.utils.HttpHeaders;
+
+/**
+ * Неблокирующий аналог {@link EventStreamRelay}: буферы потока событий сервера передаются клиенту по мере поступления,
+ * отключение клиента отменяет подписку и закрывает соединение с сервером.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveEventStreamRelay implements DisposableBean {
+    private final ConnectionProvider connections;
+    private final WebClient web;
+
+    public ReactiveEventStreamRelay(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                                    HttpClientPoolProperties pool, EventStreamProperties properties) {
+        connections = ConnectionProvider.builder("shareit-server-events")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireTimeout(pool.getConnectionRequestTimeout())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) pool.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout());
+        web = builder.clone()
+                .baseUrl(serverUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+
+    /**
+     * Пишет поток в ответ сам: для DataBuffer WebFlux не сбрасывает буфер после каждого элемента,
+     * и события застревали бы в нём до закрытия потока.
+     */
+    public Mono<Void> relay(String path, long userId, ServerHttpResponse response) {
+        return web.get()
+                .uri(path)
+                .header(HttpHeaders.SHARER_USER_ID, String.valueOf(userId))
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .retrieve()
+                .onStatus(status -> true, upstream -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(upstream -> {
+                    MediaType contentType = upstream.getHeaders().getContentType();
+                    response.setStatusCode(upstream.getStatusCode());
+                    response.getHeaders().setContentType(contentType != null ? contentType : MediaType.TEXT_EVENT_STREAM);
+                    response.getHeaders().setCacheControl(CacheControl.noCache());
+                    Flux<DataBuffer> body = upstream.getBody() != null ? upstream.getBody() : Flux.empty();
+                    return response.writeAndFlushWith(body.map(Mono::just));
+                });
+    }
+
+    @Override
+    public void destroy() {
+        connections.dispose();
+    }
+}
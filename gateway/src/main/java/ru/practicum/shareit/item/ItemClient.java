@@ -3,38 +3,42 @@ package ru.practicum.shareit.item;
 import ru.practicum.shareit.client.BaseClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory shareItRequestFactory) {
+        super(serverUrl, API_PREFIX, builder, shareItRequestFactory);
     }
 
-    public ResponseEntity<Object> getItems(Long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getItems(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("?cursor={cursor}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> getItemById(Long itemId) {
         return get("/" + itemId);
     }
 
+    public ResponseEntity<Object> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
     public ResponseEntity<Object> createItem(Long userId, ItemDto dto) {
         return post("", userId, dto);
     }
@@ -43,11 +47,13 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, dto);
     }
 
-    public ResponseEntity<Object> foundItem(Long userId, String text) {
+    public ResponseEntity<Object> foundItem(Long userId, String text, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(Long authorId, Long itemId, CommentDto dto) {
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.item;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -11,9 +15,11 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.utils.HttpHeaders;
 
 import java.util.Collections;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/items")
 @Slf4j
 @Validated
@@ -22,8 +28,10 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId) {
-        return itemClient.getItems(userId);
+    public ResponseEntity<Object> getItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                           @RequestParam Optional<String> cursor,
+                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemClient.getItems(userId, cursor.orElse(""), size);
     }
 
     @GetMapping("/{itemId}")
@@ -31,6 +39,13 @@ public class ItemController {
         return itemClient.getItemById(itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable("itemId") long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
     @PostMapping
     public ResponseEntity<Object> createItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
                                              @RequestBody ItemDto dto) {
@@ -45,11 +60,13 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<Object> foundItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
-                                            @RequestParam Optional<String> text) {
-        if (text.isEmpty()) {
-            return (ResponseEntity<Object>) Collections.emptyList();
+                                            @RequestParam Optional<String> text,
+                                            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
+        if (text.isEmpty() || text.get().isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
         }
-        return itemClient.foundItem(userId, text.get());
+        return itemClient.foundItem(userId, text.get(), from, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ItemReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ItemReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(serverUrl, API_PREFIX, builder);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItems(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemById(Long itemId) {
+        return get("/" + itemId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of("from", from, "to", to);
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(Long userId, ItemDto dto) {
+        return post("", userId, dto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(Long userId, Long itemId, ItemDto dto) {
+        return patch("/" + itemId, userId, dto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundItem(Long userId, String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(Long authorId, Long itemId, CommentDto dto) {
+        return post("/" + itemId + "/comment", authorId, dto);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.utils.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/items")
+@Slf4j
+@Validated
+@AllArgsConstructor
+public class ItemReactiveController {
+    private final ItemReactiveClient itemClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                           @RequestParam Optional<String> cursor,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemClient.getItems(userId, cursor.orElse(""), size);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemById(@PathVariable("itemId") long itemId) {
+        return itemClient.getItemById(itemId);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getAvailability(@PathVariable("itemId") long itemId,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemClient.getAvailability(itemId, from, to);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                             @RequestBody ItemDto dto) {
+        return itemClient.createItem(userId, dto);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                             @PathVariable("itemId") long itemId, @RequestBody ItemDto dto) {
+        return itemClient.updateItem(userId, itemId, dto);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                            @RequestParam Optional<String> text,
+                                                            @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                            @Positive @RequestParam(defaultValue = "10") Integer size) {
+        if (text.isEmpty() || text.get().isBlank()) {
+            return Mono.just(ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap("[]".getBytes(StandardCharsets.UTF_8)))));
+        }
+        return itemClient.foundItem(userId, text.get(), from, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId,
+                                                                @PathVariable("itemId") long itemId,
+                                                                @RequestBody CommentDto dto) {
+        return itemClient.createComment(authorId, itemId, dto);
+    }
+}
@@ -2,34 +2,35 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
+import java.util.Map;
+
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory shareItRequestFactory) {
+        super(serverUrl, API_PREFIX, builder, shareItRequestFactory);
     }
 
-    public ResponseEntity<Object> showRequests(Long authorId) {
-        return get("", authorId);
+    public ResponseEntity<Object> showRequests(Long authorId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("?cursor={cursor}&size={size}", authorId, parameters);
     }
 
-    public ResponseEntity<Object> showAllRequests() {
-        return get("/all");
+    public ResponseEntity<Object> showAllRequests(String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("/all?cursor={cursor}&size={size}", null, parameters);
     }
 
     public ResponseEntity<Object> showRequestsById(Long requestId) {
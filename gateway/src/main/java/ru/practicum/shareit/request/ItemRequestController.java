@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request;
 
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -9,7 +11,10 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.utils.HttpHeaders;
 
+import java.util.Optional;
+
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/requests")
 @Slf4j
 @Validated
@@ -18,13 +23,16 @@ public class ItemRequestController {
     private final ItemRequestClient itemRequestClient;
 
     @GetMapping
-    public ResponseEntity<Object> foundItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId) {
-        return itemRequestClient.showRequests(authorId);
+    public ResponseEntity<Object> foundItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId,
+                                             @RequestParam Optional<String> cursor,
+                                             @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemRequestClient.showRequests(authorId, cursor.orElse(""), size);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> foundAllItems() {
-        return itemRequestClient.showAllRequests();
+    public ResponseEntity<Object> foundAllItems(@RequestParam Optional<String> cursor,
+                                                @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemRequestClient.showAllRequests(cursor.orElse(""), size);
     }
 
     @GetMapping("/{requestId}")
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ItemRequestReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/requests";
+
+    public ItemRequestReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(serverUrl, API_PREFIX, builder);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> showRequests(Long authorId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("?cursor={cursor}&size={size}", authorId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> showAllRequests(String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("/all?cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> showRequestsById(Long requestId) {
+        return get("/" + requestId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItemRequest(Long authorId, ItemRequestDto dto) {
+        return post("", authorId, dto);
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.request;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.utils.HttpHeaders;
+
+import java.util.Optional;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/requests")
+@Slf4j
+@Validated
+@AllArgsConstructor
+public class ItemRequestReactiveController {
+    private final ItemRequestReactiveClient itemRequestClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId,
+                                                             @RequestParam Optional<String> cursor,
+                                                             @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemRequestClient.showRequests(authorId, cursor.orElse(""), size);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundAllItems(@RequestParam Optional<String> cursor,
+                                                                @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return itemRequestClient.showAllRequests(cursor.orElse(""), size);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> foundItemsById(@PathVariable("requestId") long requestId) {
+        return itemRequestClient.showRequestsById(requestId);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItemRequest(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId,
+                                                                    @RequestBody ItemRequestDto dto) {
+        return itemRequestClient.createItemRequest(authorId, dto);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class UserReactiveClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    public UserReactiveClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(serverUrl, API_PREFIX, builder);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers(String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return get("?cursor={cursor}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsersById(Long userId) {
+        return get("/" + userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(UserDto dto) {
+        return post("", dto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(Long userId, UserDto dto) {
+        return patch("/" + userId, dto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(Long userId) {
+        return delete("/" + userId);
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.user;
+
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.Optional;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/users")
+@Slf4j
+@Validated
+@AllArgsConstructor
+public class UserReactiveController {
+    private final UserReactiveClient userClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers(@RequestParam Optional<String> cursor,
+                                                           @Positive @RequestParam(defaultValue = "10") Integer size) {
+        return userClient.getUsers(cursor.orElse(""), size);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(@RequestBody UserDto dto) {
+        return userClient.createUser(dto);
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsersById(@PathVariable("userId") long userId) {
+        return userClient.getUsersById(userId);
+    }
+
+    @PatchMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateUser(@PathVariable("userId") long userId, @RequestBody UserDto dto) {
+        return userClient.updateUser(userId, dto);
+    }
+
+    @DeleteMapping("/{userId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteUser(@PathVariable("userId") long userId) {
+        return userClient.deleteUser(userId);
+    }
+}
@@ -2,4 +2,5 @@ package ru.practicum.shareit.utils;
 
 public class HttpHeaders {
     public static final String SHARER_USER_ID = "X-Sharer-User-Id";
+    public static final String NEXT_PAGE_TOKEN = "X-Next-Page-Token";
 }
@@ -2,12 +2,21 @@ package ru.practicum.shareit.booking;
 
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingReviewResultDto;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
 import ru.practicum.shareit.booking.services.BookingService;
 import ru.practicum.shareit.utils.HttpHeaders;
+import ru.practicum.shareit.utils.KeysetPages;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +25,18 @@ import java.util.Optional;
 @AllArgsConstructor
 public class BookingController {
     private BookingService bookingService;
+    private BookingEventBroker bookingEventBroker;
+
+    // Поток событий CREATED/APPROVED/REJECTED по бронированиям, где пользователь арендатор или владелец вещи
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId) {
+        return bookingEventBroker.subscribe(userId);
+    }
+
+    // Клиент потока событий отключился: ответ уже начат, сообщать об ошибке некому
+    @ExceptionHandler(IOException.class)
+    public void clientDisconnected(IOException e) {
+    }
 
     @GetMapping("/{bookingId}")
     @ResponseStatus(HttpStatus.OK)
@@ -25,15 +46,23 @@ public class BookingController {
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<BookingOutDto> foundBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId, @RequestParam Optional<String> state) {
-        return bookingService.foundBookingsByState(bookerId, state);
+    public ResponseEntity<List<BookingOutDto>> foundBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId,
+                                                                    @RequestParam Optional<String> state,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "10") int size) {
+        return KeysetPages.toResponse(
+                bookingService.foundBookingsByState(bookerId, state,
+                        KeysetPages.decode(cursor, BookingViewRepository.KEYS), size));
     }
 
     @GetMapping("/owner")
-    @ResponseStatus(HttpStatus.OK)
-    public List<BookingOutDto> foundUsersBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId, @RequestParam Optional<String> state) {
-        return bookingService.foundUsersBookingsByState(bookerId, state);
+    public ResponseEntity<List<BookingOutDto>> foundUsersBookingsByState(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long bookerId,
+                                                                         @RequestParam Optional<String> state,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "10") int size) {
+        return KeysetPages.toResponse(
+                bookingService.foundUsersBookingsByState(bookerId, state,
+                        KeysetPages.decode(cursor, BookingViewRepository.KEYS), size));
     }
 
     @PostMapping
@@ -43,6 +72,12 @@ public class BookingController {
         return bookingService.createBooking(userId, dto);
     }
 
+    @PatchMapping("/bulk")
+    public List<BookingReviewResultDto> reviewBookings(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                       @RequestBody List<BookingReviewDto> reviews) {
+        return bookingService.reviewBookings(userId, reviews);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingOutDto reviewBooking(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
                                        @PathVariable("bookingId") Long bookingId, @RequestParam(required = true) Boolean approved) {
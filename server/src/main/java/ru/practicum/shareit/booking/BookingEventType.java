@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking;
+
+// Событие потока /bookings/events
+public enum BookingEventType {
+    CREATED,
+    APPROVED,
+    REJECTED,
+    // Подписчик не успевал читать и пропустил события: списки нужно перечитать
+    RESYNC
+}
@@ -4,8 +4,14 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -17,13 +23,37 @@ public class BookingMapper {
         dto.setId(booking.getId());
         dto.setStart(booking.getStart().toString());
         dto.setEnd(booking.getEnd().toString());
-        dto.setItem(booking.getItem());
-        dto.setBooker(booking.getBooker());
+        dto.setItem(ItemMapper.toItemShortDto(booking.getItem()));
+        dto.setBooker(UserMapper.toUserShortDto(booking.getBooker()));
         dto.setStatus(booking.getStatus());
 
         return dto;
     }
 
+    public static BookingOutDto toBookingDto(ArchivedBooking booking) {
+        BookingOutDto dto = new BookingOutDto();
+        dto.setId(booking.getId());
+        dto.setStart(booking.getStart().toString());
+        dto.setEnd(booking.getEnd().toString());
+        dto.setItem(ItemMapper.toItemShortDto(booking.getItem()));
+        dto.setBooker(UserMapper.toUserShortDto(booking.getBooker()));
+        dto.setStatus(booking.getStatus());
+
+        return dto;
+    }
+
+    public static BookingOutDto toBookingDto(BookingView booking) {
+        BookingOutDto dto = new BookingOutDto();
+        dto.setId(booking.id());
+        dto.setStart(booking.start().toString());
+        dto.setEnd(booking.end().toString());
+        dto.setItem(new ItemShortDto(booking.itemId(), booking.itemName()));
+        dto.setBooker(new UserShortDto(booking.bookerId(), booking.bookerName()));
+        dto.setStatus(booking.status());
+
+        return dto;
+    }
+
     public static Booking inToBooking(BookingInDto dto, User user, Item item) {
         LocalDateTime dateOfStart = LocalDateTime.parse(dto.getStart());
         LocalDateTime dateOfEnd = LocalDateTime.parse(dto.getEnd());
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking;
+
+// Итог рассмотрения одного бронирования в пакетном запросе
+public enum ReviewOutcome {
+    APPROVED,
+    REJECTED,
+    NOT_FOUND,
+    NOT_OWNER,
+    ALREADY_REVIEWED,
+    // Подтверждение пересекается с уже занятым периодом вещи
+    OVERLAP
+}
@@ -1,8 +1,21 @@
 package ru.practicum.shareit.booking;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELED
+    CANCELED,
+    // Владелец не ответил до начала бронирования
+    EXPIRED,
+    // Подтверждённое бронирование закончилось
+    FINISHED;
+
+    // Статусы, при которых бронирование занимает вещь на свой период
+    public static final Set<Status> BLOCKING = EnumSet.of(WAITING, APPROVED);
+
+    // Конечные статусы: закончившееся бронирование в них больше не меняется и со временем уходит в архив
+    public static final Set<Status> FINAL = EnumSet.of(REJECTED, CANCELED, EXPIRED, FINISHED);
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.BookingEventType;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingEventDto {
+    private BookingEventType type;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BookingOutDto booking;
+}
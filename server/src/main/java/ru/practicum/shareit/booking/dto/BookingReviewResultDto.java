@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.ReviewOutcome;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingReviewResultDto {
+    private Long bookingId;
+    private ReviewOutcome outcome;
+    // Бронирование после изменения; только для применённых решений
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BookingOutDto booking;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ближайшее бронирование в карточке вещи. itemId нужен только для раскладки бронирований по вещам списка.
+ */
+public record BookingShortDto(Long id, @JsonIgnore Long itemId, Long bookerId, LocalDateTime start,
+                              LocalDateTime end) {
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Период бронирования [start, end): конец не входит, поэтому бронирования встык не пересекаются.
+ */
+public record BookingPeriod(Long id, LocalDateTime start, LocalDateTime end) {
+    public boolean overlaps(BookingPeriod other) {
+        return start.isBefore(other.end) && other.start.isBefore(end);
+    }
+}
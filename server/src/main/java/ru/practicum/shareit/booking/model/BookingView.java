@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка списка бронирований: только столбцы, которые уходят в ответ, без сущностей вещи и арендатора.
+ */
+public record BookingView(Long id, LocalDateTime start, LocalDateTime end, Status status,
+                          Long itemId, String itemName, Long bookerId, String bookerName) {
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.repositories;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long>,
+        JpaSpecificationExecutor<ArchivedBooking> {
+    boolean existsByBookerIdAndItemIdAndStatus(Long bookerId, Long itemId, Status status);
+
+    @Query("SELECT b FROM ArchivedBooking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookingId")
+    Optional<ArchivedBooking> findDetailedById(@Param("bookingId") Long bookingId);
+
+    // Строки копируются одной вставкой вместе с id и версией; объявленная таблица оставляет остальной кэш нетронутым
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "public.bookings_archive"))
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, status, version, " +
+            "archived_at) SELECT id, start_date, end_date, item_id, booker_id, status, version, :now " +
+            "FROM bookings WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromBookings(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
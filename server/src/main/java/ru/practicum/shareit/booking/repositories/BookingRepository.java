@@ -1,41 +1,105 @@
 package ru.practicum.shareit.booking.repositories;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.cache.EntityCacheConfig;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, JpaSpecificationExecutor<Booking> {
+    Optional<Booking> findByBookerIdAndItemId(Long bookerId, Long itemId);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId ORDER BY b.start DESC")
-    List<Booking> findAllByBookerId(@Param("bookerId") Long bookerId);
+    // Просмотр и рассмотрение бронирования: вещь и арендатор нужны для ответа, владелец - только по id
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.id = :bookingId")
+    Optional<Booking> findDetailedById(@Param("bookingId") Long bookingId);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.status = :status ORDER BY b.start DESC")
-    List<Booking> findAllByBookerIdAndStatus(@Param("bookerId") Long bookerId, @Param("status") Status status);
+    /**
+     * Решение владельца применяется только к ожидающему бронированию: из одновременных решений
+     * по одному бронированию строку изменит одно, остальные получат 0.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+            "WHERE b.id = :bookingId AND b.status = 'WAITING'")
+    int reviewWaiting(@Param("bookingId") Long bookingId, @Param("status") Status status);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start > :currentDate ORDER BY b.start ASC")
-    List<Booking> findAllByBookerIdAndFuture(@Param("bookerId") Long bookerId, @Param("currentDate") LocalDateTime currentDate);
+    // Бронирования пакетного рассмотрения вместе с вещами и арендаторами - одним запросом
+    @Query("SELECT b FROM Booking b JOIN FETCH b.booker JOIN FETCH b.item WHERE b.id IN :ids")
+    List<Booking> findAllForReview(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.end < :currentDate ORDER BY b.end ASC")
-    List<Booking> findAllByBookerIdAndPast(@Param("bookerId") Long bookerId, @Param("currentDate") LocalDateTime currentDate);
+    // Всё ещё ожидающие бронирования пакета под блокировкой строк; порядок по id не даёт двум пакетам
+    // заблокировать друг друга накрест
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'WAITING' ORDER BY b.id")
+    List<Booking> lockWaiting(@Param("ids") Collection<Long> ids);
 
-    @Query("SELECT b FROM Booking b WHERE b.item IN :items ORDER BY b.start DESC")
-    List<Booking> findByAllItems(@Param("items") List<Item> items);
+    @Query("SELECT b.id FROM Booking b WHERE b.status = :status AND b.start < :before")
+    List<Long> findIdsStartedBefore(@Param("status") Status status, @Param("before") LocalDateTime before, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item IN :items AND b.status = :status ORDER BY b.start DESC")
-    List<Booking> findByItemsAndStatus(@Param("items") List<Item> items, @Param("status") Status status);
+    @Query("SELECT b.id FROM Booking b WHERE b.status = :status AND b.end < :before")
+    List<Long> findIdsEndedBefore(@Param("status") Status status, @Param("before") LocalDateTime before, Limit limit);
 
-    Optional<Booking> findByBookerIdAndItemId(Long bookerId, Long itemId);
+    @Query("SELECT b.id FROM Booking b WHERE b.status IN :statuses AND b.end < :before")
+    List<Long> findIdsEndedBefore(@Param("statuses") Collection<Status> statuses, @Param("before") LocalDateTime before,
+                                  Limit limit);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Условие по исходному статусу не даёт затереть решение владельца, принятое между выборкой и обновлением
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :to, b.version = b.version + 1 WHERE b.id IN :ids AND b.status = :from")
+    int transition(@Param("ids") Collection<Long> ids, @Param("from") Status from, @Param("to") Status to);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.status = 'APPROVED' AND b.start < :currentDate " +
+            "AND b.end > :currentDate AND b.item.id = :itemId ORDER BY b.end ASC")
+    List<BookingShortDto> findLastBooking(@Param("itemId") Long itemId, @Param("currentDate") LocalDateTime currentDate, Limit limit);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.status = 'APPROVED' AND b.start > :currentDate " +
+            "AND b.item.id = :itemId ORDER BY b.start ASC")
+    List<BookingShortDto> findNextBooking(@Param("itemId") Long itemId, @Param("currentDate") LocalDateTime currentDate, Limit limit);
+
+    /**
+     * Текущее и следующее подтверждённые бронирования сразу для набора вещей: не больше двух строк на вещь,
+     * кроме бронирований с одинаковым концом (текущее) или началом (следующее).
+     */
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingShortDto(b.id, b.item.id, b.booker.id, b.start, b.end) " +
+            "FROM Booking b WHERE b.status = 'APPROVED' AND b.item.id IN :itemIds AND (" +
+            "(b.start < :currentDate AND b.end > :currentDate AND b.end = (SELECT MIN(l.end) FROM Booking l " +
+            "WHERE l.item = b.item AND l.status = 'APPROVED' AND l.start < :currentDate AND l.end > :currentDate)) " +
+            "OR (b.start > :currentDate AND b.start = (SELECT MIN(n.start) FROM Booking n " +
+            "WHERE n.item = b.item AND n.status = 'APPROVED' AND n.start > :currentDate))) ORDER BY b.id")
+    List<BookingShortDto> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                  @Param("currentDate") LocalDateTime currentDate);
 
-    @Query("SELECT b FROM Booking b WHERE b.status = 'APPROVED' AND b.start < :currentDate AND b.end > :currentDate AND b.item.id = :itemId ORDER BY b.end ASC")
-    List<Booking> findLastBooking(@Param("itemId") Long itemId, @Param("currentDate") LocalDateTime currentDate);
+    // Календарь вещи для индекса пересечений: граница after - начало суток, и результат живёт до изменения bookings
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.BOOKING_QUERIES)})
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingPeriod(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.end > :after ORDER BY b.start")
+    List<BookingPeriod> findPeriods(@Param("itemId") Long itemId, @Param("statuses") Collection<Status> statuses,
+                                    @Param("after") LocalDateTime after);
 
-    @Query("SELECT b FROM Booking b WHERE b.status = 'APPROVED' AND b.start > :currentDate AND b.item.id = :itemId ORDER BY b.start ASC")
-    List<Booking> findNextBooking(@Param("itemId") Long itemId, @Param("currentDate") LocalDateTime currentDate);
+    @Query("SELECT new ru.practicum.shareit.booking.model.BookingPeriod(b.id, b.start, b.end) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.status IN :statuses AND b.start < :to AND b.end > :from ORDER BY b.start")
+    List<BookingPeriod> findPeriodsBetween(@Param("itemId") Long itemId, @Param("statuses") Collection<Status> statuses,
+                                           @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
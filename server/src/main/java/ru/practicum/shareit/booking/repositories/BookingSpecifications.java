@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.repositories;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.States;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки бронирований. Они годятся и для горячей таблицы, и для архива: сущности называют поля одинаково.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingSpecifications {
+    public static <T> Specification<T> byBooker(Long bookerId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), bookerId);
+    }
+
+    // Соединение с вещью по владельцу вместо списка его вещей в IN: один запрос постоянного размера
+    public static <T> Specification<T> byOwner(Long ownerId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), ownerId);
+    }
+
+    /**
+     * Условие состояния бронирования на момент now. Каждое состояние - один диапазон по start_date
+     * (для CURRENT, WAITING и REJECTED - внутри статуса), который вместе с пользователем или вещью
+     * ложится на префикс составного индекса (..., status, start_date DESC, end_date) из миграции V4;
+     * условие по end_date проверяется по тому же индексу.
+     */
+    public static <T> Specification<T> inState(States state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> (root, query, cb) -> cb.conjunction();
+            case CURRENT -> (root, query, cb) -> cb.and(cb.equal(root.get("status"), Status.APPROVED),
+                    cb.lessThanOrEqualTo(root.get("start"), now), cb.greaterThan(root.get("end"), now));
+            // Бронирование кончается позже, чем начинается: граница по start_date лишь сужает диапазон индекса
+            case PAST -> (root, query, cb) -> cb.and(cb.lessThan(root.get("start"), now),
+                    cb.lessThan(root.get("end"), now));
+            case FUTURE -> (root, query, cb) -> cb.greaterThan(root.get("start"), now);
+            case WAITING -> withStatus(Status.WAITING);
+            case REJECTED -> withStatus(Status.REJECTED);
+        };
+    }
+
+    private static <T> Specification<T> withStatus(Status status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
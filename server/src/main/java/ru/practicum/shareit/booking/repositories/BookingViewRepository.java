@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.utils.KeysetPages;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страницы списков бронирований в виде {@link BookingView}: выборка конструктором по условиям
+ * {@link BookingSpecifications} без загрузки сущностей вещи, владельца и арендатора.
+ * Годится и для горячей таблицы, и для архива. Порядок - по убыванию начала, id делает ключ страницы уникальным.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingViewRepository {
+    // Ключи позиции страницы, см. positionOf
+    public static final Map<String, Class<?>> KEYS = Map.of("start", LocalDateTime.class, "id", Long.class);
+
+    private final EntityManager em;
+
+    public <T> Window<BookingView> scroll(Class<T> entity, Specification<T> spec, KeysetScrollPosition position,
+                                          int size) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<T> root = query.from(entity);
+        Path<LocalDateTime> start = root.get("start");
+        Path<Long> id = root.get("id");
+        query.select(cb.construct(BookingView.class, id, start, root.get("end"), root.get("status"),
+                root.get("item").get("id"), root.get("item").get("name"),
+                root.get("booker").get("id"), root.get("booker").get("name")));
+
+        List<Predicate> where = new ArrayList<>();
+        Predicate condition = spec.toPredicate(root, query, cb);
+        if (condition != null) {
+            where.add(condition);
+        }
+        if (!position.isInitial()) {
+            // Строки строго после позиции в порядке (start DESC, id DESC)
+            LocalDateTime afterStart = KeysetPages.key(position, "start", LocalDateTime.class);
+            Long afterId = KeysetPages.key(position, "id", Long.class);
+            where.add(cb.or(cb.lessThan(start, afterStart),
+                    cb.and(cb.equal(start, afterStart), cb.lessThan(id, afterId))));
+        }
+        query.where(where.toArray(Predicate[]::new));
+        query.orderBy(cb.desc(start), cb.desc(id));
+
+        List<BookingView> rows = em.createQuery(query).setMaxResults(size + 1).getResultList();
+        List<BookingView> content = rows.size() > size ? rows.subList(0, size) : rows;
+        return Window.from(content, i -> positionOf(content.get(i)), rows.size() > size);
+    }
+
+    public static KeysetScrollPosition positionOf(BookingView booking) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("start", booking.start());
+        keys.put("id", booking.id());
+        return ScrollPosition.forward(keys);
+    }
+}
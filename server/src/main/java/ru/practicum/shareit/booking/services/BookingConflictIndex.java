@@ -0,0 +1,184 @@
+package ru.practicum.shareit.booking.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Занятые периоды вещей для проверки пересечения бронирований.
+ * Календарь вещи загружается при первом обращении: ожидающие и подтверждённые бронирования, которые ещё не закончились.
+ * Периоды в календаре не пересекаются, поэтому, упорядоченные по началу, упорядочены и по концу:
+ * пересечение с новым периодом ищется одним поиском соседа в TreeMap за O(log n).
+ * Календарь локален для узла; между узлами пересечения не допускает ограничение-исключение в PostgreSQL (миграция V3).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingConflictIndex {
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, Calendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Занимает период сохранённого бронирования или бросает {@link ConflictException}, если он пересекается с другим.
+     * Если транзакция откатится, период освобождается.
+     */
+    public void reserve(Booking booking) {
+        BookingPeriod period = new BookingPeriod(booking.getId(), booking.getStart(), booking.getEnd());
+        Calendar calendar = occupy(booking.getItem().getId(), period, true);
+        afterCompletion(committed -> calendar.locked(() -> {
+            calendar.pending.remove(period.id());
+            if (!committed) {
+                calendar.remove(period);
+            }
+        }));
+    }
+
+    /**
+     * Проверяет подтверждаемое бронирование на пересечение с остальными и бросает {@link ConflictException}.
+     * Подтверждается ожидающее бронирование, которое уже занимает свой период; при откате оно остаётся
+     * ожидающим или подтверждённым другим запросом, поэтому период из календаря не убирается.
+     */
+    public void confirm(Booking booking) {
+        occupy(booking.getItem().getId(), new BookingPeriod(booking.getId(), booking.getStart(), booking.getEnd()),
+                false);
+    }
+
+    private Calendar occupy(Long itemId, BookingPeriod period, boolean pending) {
+        Calendar calendar = calendars.computeIfAbsent(itemId, id -> new Calendar());
+        calendar.lock.lock();
+        try {
+            boolean fresh = !calendar.loaded;
+            if (fresh) {
+                load(itemId, calendar, period.id());
+            }
+            BookingPeriod conflict = calendar.conflictWith(period);
+            if (conflict != null && !fresh) {
+                // Календарь мог устареть: бронирование могли отклонить на другом узле
+                load(itemId, calendar, period.id());
+                conflict = calendar.conflictWith(period);
+            }
+            if (conflict != null) {
+                throw new ConflictException("Вещь уже забронирована с " + conflict.start() + " по " + conflict.end());
+            }
+            calendar.put(period);
+            if (pending) {
+                calendar.pending.put(period.id(), period);
+            }
+            return calendar;
+        } finally {
+            calendar.lock.unlock();
+        }
+    }
+
+    /**
+     * Освобождает период отклонённого бронирования после фиксации транзакции.
+     */
+    public void release(Booking booking) {
+        BookingPeriod period = new BookingPeriod(booking.getId(), booking.getStart(), booking.getEnd());
+        afterCompletion(committed -> {
+            Calendar calendar = calendars.get(booking.getItem().getId());
+            if (committed && calendar != null) {
+                calendar.locked(() -> calendar.remove(period));
+            }
+        });
+    }
+
+    /**
+     * Помечает календарь вещи устаревшим; следующая проверка загрузит его из базы заново.
+     * Сам календарь остаётся в карте: проверка, уже взявшая его, и её завершение транзакции работают с тем же
+     * экземпляром, что и следующая загрузка, а свои незафиксированные брони переживут перечитывание.
+     */
+    public void evict(Long itemId) {
+        Calendar calendar = calendars.get(itemId);
+        if (calendar != null) {
+            calendar.locked(() -> calendar.loaded = false);
+        }
+    }
+
+    /**
+     * Перечитывает календарь вещи. Проверяемое бронирование уже сохранено в текущей транзакции и видно в выборке -
+     * оно пропускается, чтобы не заслонить собой пересекающийся период.
+     */
+    private void load(Long itemId, Calendar calendar, Long checkedId) {
+        calendar.byStart.clear();
+        bookingRepository.findPeriods(itemId, Status.BLOCKING, horizon()).stream()
+                .filter(period -> !period.id().equals(checkedId))
+                .forEach(calendar::put);
+        // Свои ещё не зафиксированные брони база другим транзакциям не покажет
+        calendar.pending.values().stream()
+                .filter(period -> !period.id().equals(checkedId))
+                .forEach(calendar::put);
+        calendar.loaded = true;
+        log.debug("Календарь вещи {} загружен: {} периодов", itemId, calendar.byStart.size());
+    }
+
+    // Бронирование не может начаться раньше сегодняшнего дня, поэтому закончившиеся до него периоды не мешают
+    private static LocalDateTime horizon() {
+        return LocalDate.now().atStartOfDay();
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static final class Calendar {
+        // ReentrantLock, а не synchronized: виртуальный поток не закрепляется за носителем на время загрузки из базы
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TreeMap<LocalDateTime, BookingPeriod> byStart = new TreeMap<>();
+        private final Map<Long, BookingPeriod> pending = new HashMap<>();
+        private boolean loaded;
+
+        BookingPeriod conflictWith(BookingPeriod period) {
+            byStart.headMap(horizon()).values().removeIf(p -> !p.end().isAfter(horizon()));
+            // Повторное подтверждение: сам с собой период не конфликтует
+            remove(period);
+            // Среди периодов, начавшихся до конца нового, самый поздний заканчивается позже всех
+            Map.Entry<LocalDateTime, BookingPeriod> candidate = byStart.lowerEntry(period.end());
+            return candidate != null && candidate.getValue().overlaps(period) ? candidate.getValue() : null;
+        }
+
+        void put(BookingPeriod period) {
+            byStart.put(period.start(), period);
+        }
+
+        void remove(BookingPeriod period) {
+            BookingPeriod current = byStart.get(period.start());
+            if (current != null && current.id().equals(period.id())) {
+                byStart.remove(period.start());
+            }
+        }
+
+        void locked(Runnable action) {
+            lock.lock();
+            try {
+                action.run();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
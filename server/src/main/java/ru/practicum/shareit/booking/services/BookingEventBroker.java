@@ -0,0 +1,227 @@
+package ru.practicum.shareit.booking.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingEventType;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Рассылка событий бронирований подписчикам GET /bookings/events (server-sent events).
+ * Событие получают арендатор и владелец вещи, и только после фиксации породившей его транзакции.
+ * Простаивающий подписчик не занимает поток: от него остаются асинхронный запрос и пустая очередь.
+ * Отправку ведёт виртуальный поток, который живёт, пока у подписчика есть неотправленные события.
+ * Очередь подписчика ограничена: если клиент не успевает читать, накопленное заменяется одним событием RESYNC,
+ * по которому клиент один раз перечитывает списки.
+ */
+@Slf4j
+@Component
+public class BookingEventBroker {
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter resyncs;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    public BookingEventBroker(MeterRegistry meterRegistry,
+                              @Value("${shareit.booking-events.buffer-size:32}") int bufferSize,
+                              @Value("${shareit.booking-events.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        Gauge.builder("booking.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Открытые потоки событий бронирований")
+                .register(meterRegistry);
+        resyncs = Counter.builder("booking.events.resync")
+                .description("Переполнения очереди подписчика, заменённые событием RESYNC")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        return subscribe(userId, new SseEmitter(timeout.toMillis()));
+    }
+
+    /**
+     * Подписывает готовый emitter. По истечении его срока поток закрывается штатно, и клиент переподключается.
+     */
+    public SseEmitter subscribe(Long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter);
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            set.add(subscriber);
+            return set;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> unsubscribe(subscriber));
+        // Первый комментарий сразу отдаёт заголовки ответа: прокси шлюза не ждёт первого события
+        subscriber.offer(SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    /**
+     * Ставит событие в очереди подписчиков арендатора и владельца; при активной транзакции - после её фиксации.
+     * Владелец передаётся отдельно: в ответе о бронировании вещь представлена только id и названием.
+     */
+    public void publish(BookingEventType type, BookingOutDto booking, Long ownerId) {
+        BookingEventDto event = new BookingEventDto(type, booking);
+        Set<Long> recipients = new HashSet<>();
+        recipients.add(booking.getBooker().id());
+        recipients.add(ownerId);
+        afterCommit(() -> {
+            long id = sequence.incrementAndGet();
+            recipients.forEach(userId -> subscribersOf(userId).forEach(subscriber ->
+                    subscriber.offer(SseEmitter.event().id(Long.toString(id)).name(type.name()).data(event))));
+        });
+    }
+
+    // Комментарий раз в интервал не даёт прокси закрыть простаивающее соединение и выявляет отключившихся
+    @Scheduled(initialDelayString = "${shareit.booking-events.heartbeat:PT15S}",
+            fixedDelayString = "${shareit.booking-events.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(Subscriber::ping));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdownNow();
+    }
+
+    private Set<Subscriber> subscribersOf(Long userId) {
+        return subscribers.getOrDefault(userId, Set.of());
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (!subscriber.close()) {
+            return;
+        }
+        subscribers.computeIfPresent(subscriber.userId, (id, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        // ReentrantLock, а не synchronized: поток отправки виртуальный
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Deque<SseEmitter.SseEventBuilder> queue = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+
+        Subscriber(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(SseEmitter.SseEventBuilder event) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return;
+                }
+                if (queue.size() >= bufferSize) {
+                    queue.clear();
+                    queue.add(SseEmitter.event().name(BookingEventType.RESYNC.name())
+                            .data(new BookingEventDto(BookingEventType.RESYNC, null)));
+                    resyncs.increment();
+                    log.debug("Подписчик {} не успевает читать события, отправлен RESYNC", userId);
+                }
+                queue.add(event);
+                if (sending) {
+                    return;
+                }
+                sending = true;
+            } finally {
+                lock.unlock();
+            }
+            sender.execute(this::drain);
+        }
+
+        void ping() {
+            lock.lock();
+            try {
+                if (sending || closed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            offer(SseEmitter.event().comment("ping"));
+        }
+
+        boolean close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                queue.clear();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder event;
+                lock.lock();
+                try {
+                    event = closed ? null : queue.poll();
+                    if (event == null) {
+                        sending = false;
+                        return;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    // Клиент отключился: контейнер сам завершит запрос, подписку снимаем сразу
+                    log.debug("Поток событий пользователя {} закрыт: {}", userId, e.getMessage());
+                    unsubscribe(this);
+                }
+            }
+        }
+    }
+}
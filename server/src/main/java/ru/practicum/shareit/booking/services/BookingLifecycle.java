@@ -0,0 +1,89 @@
+package ru.practicum.shareit.booking.services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.Outbox;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Переходы бронирований, которые происходят со временем, а не по действию владельца.
+ * Каждый вызов обрабатывает не больше chunkSize бронирований в своей транзакции.
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class BookingLifecycle {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemViewCache itemViewCache;
+    private final Outbox outbox;
+
+    /**
+     * Ожидающие бронирования, начало которых прошло без решения владельца, становятся EXPIRED.
+     */
+    @Transactional
+    public int expireWaiting(LocalDateTime now, int chunkSize) {
+        List<Long> ids = bookingRepository.findIdsStartedBefore(Status.WAITING, now, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int expired = bookingRepository.transition(ids, Status.WAITING, Status.EXPIRED);
+        outbox.recordBookingTransitions(ids, Status.EXPIRED);
+        return expired;
+    }
+
+    /**
+     * Закончившиеся подтверждённые бронирования становятся FINISHED, а их вещи снова доступны,
+     * если у них не осталось подтверждённых незакончившихся бронирований.
+     */
+    @Transactional
+    public int finishApproved(LocalDateTime now, int chunkSize) {
+        List<Long> ids = bookingRepository.findIdsEndedBefore(Status.APPROVED, now, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int finished = bookingRepository.transition(ids, Status.APPROVED, Status.FINISHED);
+        outbox.recordBookingTransitions(ids, Status.FINISHED);
+        List<Item> restored = itemRepository.findRestorable(ids, now);
+        if (!restored.isEmpty()) {
+            List<Long> itemIds = restored.stream().map(Item::getId).toList();
+            itemRepository.markAvailable(itemIds, now);
+            outbox.recordItems(itemIds, ChangeType.UPDATED);
+            itemViewCache.evict(itemIds);
+            restored.forEach(item -> {
+                item.setAvailable(true);
+                itemSearchIndex.index(item);
+            });
+        }
+        return finished;
+    }
+
+    /**
+     * Бронирования в конечных статусах, закончившиеся раньше before, переносятся в bookings_archive:
+     * копия и удаление из горячей таблицы - в одной транзакции.
+     */
+    @Transactional
+    public int archiveEnded(LocalDateTime before, int chunkSize) {
+        List<Long> ids = bookingRepository.findIdsEndedBefore(Status.FINAL, before, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids, LocalDateTime.now(ZoneOffset.UTC));
+        return bookingRepository.deleteByIdIn(ids);
+    }
+}
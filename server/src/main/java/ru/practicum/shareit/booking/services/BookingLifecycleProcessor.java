@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.scheduling.LeaderLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.IntSupplier;
+
+/**
+ * Периодический проход по бронированиям: истекают ожидающие, завершаются закончившиеся,
+ * закончившиеся раньше чем archiveAfter назад уходят в архив.
+ * Из нескольких узлов проход выполняет тот, кто получил аренду {@link #LOCK}; обновления условные,
+ * поэтому проход, затянувшийся дольше аренды, не испортит данные, а лишь повторит работу.
+ */
+@Slf4j
+@Component
+public class BookingLifecycleProcessor {
+    static final String LOCK = "booking-lifecycle";
+
+    private final BookingLifecycle bookingLifecycle;
+    private final LeaderLock leaderLock;
+    private final int chunkSize;
+    private final Duration lease;
+    private final Duration archiveAfter;
+
+    public BookingLifecycleProcessor(BookingLifecycle bookingLifecycle, LeaderLock leaderLock,
+                                     @Value("${shareit.booking-lifecycle.chunk-size:500}") int chunkSize,
+                                     @Value("${shareit.booking-lifecycle.lease:PT5M}") Duration lease,
+                                     @Value("${shareit.booking-lifecycle.archive-after:P90D}") Duration archiveAfter) {
+        this.bookingLifecycle = bookingLifecycle;
+        this.leaderLock = leaderLock;
+        this.chunkSize = chunkSize;
+        this.lease = lease;
+        this.archiveAfter = archiveAfter;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-lifecycle.interval:PT1M}",
+            fixedDelayString = "${shareit.booking-lifecycle.interval:PT1M}")
+    public void sweep() {
+        if (!leaderLock.tryAcquire(LOCK, lease)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            int expired = drain(() -> bookingLifecycle.expireWaiting(now, chunkSize));
+            int finished = drain(() -> bookingLifecycle.finishApproved(now, chunkSize));
+            int archived = drain(() -> bookingLifecycle.archiveEnded(now.minus(archiveAfter), chunkSize));
+            if (expired + finished + archived > 0) {
+                log.info("Жизненный цикл бронирований: истекло {}, завершено {}, в архиве {}", expired, finished,
+                        archived);
+            }
+        } finally {
+            leaderLock.release(LOCK);
+        }
+    }
+
+    private int drain(IntSupplier chunk) {
+        int total = 0;
+        int processed;
+        do {
+            processed = chunk.getAsInt();
+            total += processed;
+        } while (processed == chunkSize);
+        return total;
+    }
+}
@@ -1,7 +1,11 @@
 package ru.practicum.shareit.booking.services;
 
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingReviewResultDto;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,9 +16,13 @@ public interface BookingService {
 
     BookingOutDto createBooking(Long bookerId, BookingInDto dto);
 
-    List<BookingOutDto> foundBookingsByState(Long bookerId, Optional<String> state);
+    Window<BookingOutDto> foundBookingsByState(Long bookerId, Optional<String> state, KeysetScrollPosition position,
+                                               int size);
 
-    List<BookingOutDto> foundUsersBookingsByState(Long bookerId, Optional<String> state);
+    Window<BookingOutDto> foundUsersBookingsByState(Long bookerId, Optional<String> state,
+                                                    KeysetScrollPosition position, int size);
 
     BookingOutDto reviewBooking(Long userId, Long bookingId, Boolean approved);
+
+    List<BookingReviewResultDto> reviewBookings(Long userId, List<BookingReviewDto> reviews);
 }
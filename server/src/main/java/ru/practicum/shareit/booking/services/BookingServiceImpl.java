@@ -1,98 +1,268 @@
 package ru.practicum.shareit.booking.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingEventType;
+import ru.practicum.shareit.booking.ReviewOutcome;
 import ru.practicum.shareit.booking.States;
 import ru.practicum.shareit.booking.Status;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingReviewResultDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.booking.repositories.BookingSpecifications.*;
 
 @Service
 @Transactional(readOnly = true)
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    // SQLSTATE нарушения ограничения-исключения в PostgreSQL
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final int MAX_BULK_REVIEWS = 100;
+    // Состояния, в которые попадают бронирования из архива: давно закончившиеся, в конечных статусах
+    private static final Set<States> ARCHIVED_STATES = EnumSet.of(States.ALL, States.PAST, States.REJECTED);
+
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingViewRepository bookingViewRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemViewCache itemViewCache;
+    private final BookingConflictIndex bookingConflictIndex;
+    private final BookingEventBroker bookingEventBroker;
+    private final Outbox outbox;
 
     @Override
     public BookingOutDto getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(NotFoundException::new);
-        if (!Objects.equals(booking.getBooker().getId(), userId) && !Objects.equals(booking.getItem().getOwner().getId(), userId)) {
+        Optional<Booking> booking = bookingRepository.findDetailedById(bookingId);
+        if (booking.isPresent()) {
+            checkParticipant(userId, booking.get().getBooker(), booking.get().getItem());
+            return BookingMapper.toBookingDto(booking.get());
+        }
+        ArchivedBooking archived = archivedBookingRepository.findDetailedById(bookingId).orElseThrow(NotFoundException::new);
+        checkParticipant(userId, archived.getBooker(), archived.getItem());
+        return BookingMapper.toBookingDto(archived);
+    }
+
+    private static void checkParticipant(Long userId, User booker, Item item) {
+        if (!Objects.equals(booker.getId(), userId) && !Objects.equals(item.getOwner().getId(), userId)) {
             throw new ValidateException("Неверный Id владельца или бронирующего");
         }
-        return BookingMapper.toBookingDto(booking);
     }
 
 
     @Override
-    public List<BookingOutDto> foundBookingsByState(Long bookerId, Optional<String> opState) {
-        return stateBookingValidator(bookerId, opState);
+    public Window<BookingOutDto> foundBookingsByState(Long bookerId, Optional<String> opState,
+                                                      KeysetScrollPosition position, int size) {
+        return stateBookingValidator(bookerId, opState, position, size);
     }
 
     @Override
-    public List<BookingOutDto> foundUsersBookingsByState(Long bookerId, Optional<String> opState) {
-        List<Item> items = itemRepository.findByOwnerId(bookerId);
-        if (items.isEmpty()) {
+    public Window<BookingOutDto> foundUsersBookingsByState(Long bookerId, Optional<String> opState,
+                                                           KeysetScrollPosition position, int size) {
+        checkPageSize(size);
+        if (!itemRepository.existsByOwnerId(bookerId)) {
             throw new ValidateException("У пользователя нету вещей");
         }
-
-        States state = opState.map(States::valueOf).orElse(States.ALL);
-        LocalDateTime currentDate = LocalDateTime.now(ZoneOffset.UTC);
-        return switch (state) {
-            case ALL -> bookingRepository.findByAllItems(items).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case CURRENT -> bookingRepository.findByItemsAndStatus(items, Status.APPROVED).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case PAST -> bookingRepository.findAllByBookerIdAndPast(bookerId, currentDate).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case FUTURE -> bookingRepository.findAllByBookerIdAndFuture(bookerId, currentDate).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case WAITING -> bookingRepository.findByItemsAndStatus(items, Status.WAITING).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case REJECTED -> bookingRepository.findByItemsAndStatus(items, Status.REJECTED).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-        };
-
+        return scrollByState(byOwner(bookerId), byOwner(bookerId), opState, position, size);
     }
 
     @Override
     @Transactional
     public BookingOutDto reviewBooking(Long userId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(NotFoundException::new);
+        Booking booking = bookingRepository.findDetailedById(bookingId).orElseThrow(NotFoundException::new);
         Item item = booking.getItem();
         if (!Objects.equals(userId, item.getOwner().getId())) {
             throw new ValidateException("Пользователь не является владельцем вещи");
         }
+        // Без блокировок: строку меняет условное обновление, проигравший параллельный запрос получает 409
+        Status status = approved ? Status.APPROVED : Status.REJECTED;
+        if (bookingRepository.reviewWaiting(bookingId, status) == 0) {
+            throw new ConflictException("Бронирование уже рассмотрено");
+        }
+        if (approved) {
+            bookingConflictIndex.confirm(booking);
+        }
+        booking.setStatus(status);
+        outbox.record(Aggregate.BOOKING, bookingId, ChangeType.valueOf(status.name()));
         if (approved) {
-            booking.setStatus(Status.APPROVED);
-            booking.getItem().setAvailable(false);
-        } else booking.setStatus(Status.REJECTED);
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
+            itemRepository.markUnavailable(item.getId());
+            item.setAvailable(false);
+            itemSearchIndex.index(item);
+            // Карточка вещи показывает подтверждённые бронирования; отказ в ожидающем её не меняет
+            itemViewCache.evict(item.getId());
+            outbox.record(Aggregate.ITEM, item.getId(), ChangeType.UPDATED);
+        } else {
+            bookingConflictIndex.release(booking);
+        }
+        BookingOutDto result = BookingMapper.toBookingDto(booking);
+        bookingEventBroker.publish(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, result,
+                item.getOwner().getId());
+        return result;
+    }
+
+    /**
+     * Пакетное рассмотрение: бронирования с вещами читаются одним запросом, решения применяются
+     * двумя условными обновлениями (подтверждения и отказы), вещи подтверждённых помечаются занятыми третьим.
+     * Бронирование, которое нельзя рассмотреть, получает свой итог и не мешает остальным. Перед обновлением
+     * рассматриваемые строки блокируются: бронирование, которое между чтением и блокировкой рассмотрел другой
+     * запрос, получает ALREADY_REVIEWED, а остальной пакет применяется.
+     */
+    @Override
+    @Transactional
+    public List<BookingReviewResultDto> reviewBookings(Long userId, List<BookingReviewDto> reviews) {
+        checkBulk(reviews);
+        Map<Long, Booking> bookings = bookingRepository.findAllForReview(
+                        reviews.stream().map(BookingReviewDto::getBookingId).toList()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        List<ReviewOutcome> outcomes = new ArrayList<>(reviews.size());
+        List<Booking> approved = new ArrayList<>();
+        List<Booking> rejected = new ArrayList<>();
+        for (BookingReviewDto review : reviews) {
+            Booking booking = bookings.get(review.getBookingId());
+            ReviewOutcome outcome = outcome(userId, booking, review.getApproved());
+            if (outcome == ReviewOutcome.APPROVED) {
+                approved.add(booking);
+            } else if (outcome == ReviewOutcome.REJECTED) {
+                rejected.add(booking);
+            }
+            outcomes.add(outcome);
+        }
+        keepStillWaiting(reviews, outcomes, approved, rejected);
+
+        applyReview(approved, Status.APPROVED);
+        applyReview(rejected, Status.REJECTED);
+        if (!approved.isEmpty()) {
+            Map<Long, Item> items = approved.stream().map(Booking::getItem)
+                    .collect(Collectors.toMap(Item::getId, Function.identity(), (a, b) -> a));
+            itemRepository.markAllUnavailable(items.keySet());
+            outbox.recordItems(items.keySet(), ChangeType.UPDATED);
+            itemViewCache.evict(items.keySet());
+            items.values().forEach(item -> {
+                item.setAvailable(false);
+                itemSearchIndex.index(item);
+            });
+        }
+        rejected.forEach(bookingConflictIndex::release);
+
+        List<BookingReviewResultDto> results = new ArrayList<>(reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            ReviewOutcome outcome = outcomes.get(i);
+            Long bookingId = reviews.get(i).getBookingId();
+            BookingOutDto booking = null;
+            if (outcome == ReviewOutcome.APPROVED || outcome == ReviewOutcome.REJECTED) {
+                Booking reviewed = bookings.get(bookingId);
+                booking = BookingMapper.toBookingDto(reviewed);
+                bookingEventBroker.publish(BookingEventType.valueOf(outcome.name()), booking,
+                        reviewed.getItem().getOwner().getId());
+            }
+            results.add(new BookingReviewResultDto(bookingId, outcome, booking));
+        }
+        return results;
+    }
+
+    private ReviewOutcome outcome(Long userId, Booking booking, boolean approved) {
+        if (booking == null) {
+            return ReviewOutcome.NOT_FOUND;
+        }
+        if (!Objects.equals(userId, booking.getItem().getOwner().getId())) {
+            return ReviewOutcome.NOT_OWNER;
+        }
+        if (booking.getStatus() != Status.WAITING) {
+            return ReviewOutcome.ALREADY_REVIEWED;
+        }
+        if (!approved) {
+            return ReviewOutcome.REJECTED;
+        }
+        try {
+            bookingConflictIndex.confirm(booking);
+        } catch (ConflictException e) {
+            return ReviewOutcome.OVERLAP;
+        }
+        return ReviewOutcome.APPROVED;
+    }
+
+    private void keepStillWaiting(List<BookingReviewDto> reviews, List<ReviewOutcome> outcomes,
+                                  List<Booking> approved, List<Booking> rejected) {
+        List<Long> ids = new ArrayList<>(approved.size() + rejected.size());
+        approved.forEach(booking -> ids.add(booking.getId()));
+        rejected.forEach(booking -> ids.add(booking.getId()));
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> waiting = bookingRepository.lockWaiting(ids).stream()
+                .map(Booking::getId)
+                .collect(Collectors.toSet());
+        for (int i = 0; i < reviews.size(); i++) {
+            ReviewOutcome outcome = outcomes.get(i);
+            if ((outcome == ReviewOutcome.APPROVED || outcome == ReviewOutcome.REJECTED)
+                    && !waiting.contains(reviews.get(i).getBookingId())) {
+                outcomes.set(i, ReviewOutcome.ALREADY_REVIEWED);
+            }
+        }
+        approved.removeIf(booking -> !waiting.contains(booking.getId()));
+        rejected.removeIf(booking -> !waiting.contains(booking.getId()));
+    }
+
+    private void applyReview(List<Booking> bookings, Status status) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        List<Long> ids = bookings.stream().map(Booking::getId).toList();
+        // Строки заблокированы keepStillWaiting, поэтому обновление затрагивает их все
+        bookingRepository.transition(ids, Status.WAITING, status);
+        outbox.recordBookingTransitions(ids, status);
+        bookings.forEach(booking -> booking.setStatus(status));
+    }
+
+    private static void checkBulk(List<BookingReviewDto> reviews) {
+        if (reviews == null || reviews.isEmpty() || reviews.size() > MAX_BULK_REVIEWS) {
+            throw new ValidateException("В пакете должно быть от 1 до " + MAX_BULK_REVIEWS + " решений");
+        }
+        Set<Long> ids = new HashSet<>();
+        for (BookingReviewDto review : reviews) {
+            if (review.getBookingId() == null || review.getApproved() == null) {
+                throw new ValidateException("Не указано бронирование или решение");
+            }
+            if (!ids.add(review.getBookingId())) {
+                throw new ValidateException("Бронирование " + review.getBookingId() + " указано несколько раз");
+            }
+        }
     }
 
     @Override
@@ -105,8 +275,37 @@ public class BookingServiceImpl implements BookingService {
         User user = userRepository.findById(userId).orElseThrow(NotFoundException::new);
         Booking booking = BookingMapper.inToBooking(dto, user, item);
         dateTimeChecker(booking);
-        bookingRepository.save(booking);
-        return BookingMapper.toBookingDto(booking);
+        saveChecked(booking);
+        bookingConflictIndex.reserve(booking);
+        outbox.record(Aggregate.BOOKING, booking.getId(), ChangeType.CREATED);
+        BookingOutDto result = BookingMapper.toBookingDto(booking);
+        bookingEventBroker.publish(BookingEventType.CREATED, result, item.getOwner().getId());
+        return result;
+    }
+
+    /**
+     * Сохраняет бронирование сразу в базу: пересечение, которое календарь узла пропустил, отклонит ограничение
+     * ex_bookings_item_period, и календарь вещи перечитается при следующей проверке.
+     */
+    private void saveChecked(Booking booking) {
+        try {
+            bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            bookingConflictIndex.evict(booking.getItem().getId());
+            throw new ConflictException("Вещь уже забронирована на это время");
+        }
+    }
+
+    private static boolean isOverlapViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     public void dateTimeChecker(Booking booking) {
@@ -118,28 +317,48 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
-    public List<BookingOutDto> stateBookingValidator(Long bookerId, Optional<String> opState) {
+    public Window<BookingOutDto> stateBookingValidator(Long bookerId, Optional<String> opState,
+                                                       KeysetScrollPosition position, int size) {
+        checkPageSize(size);
+        return scrollByState(byBooker(bookerId), byBooker(bookerId), opState, position, size);
+    }
+
+    /**
+     * Бронирования пользователя или владельца в состоянии opState: одинаковое условие состояния и порядок
+     * по убыванию начала для обоих представлений. Архив читается только для состояний из ARCHIVED_STATES.
+     */
+    private Window<BookingOutDto> scrollByState(Specification<Booking> scope, Specification<ArchivedBooking> archivedScope,
+                                                Optional<String> opState, KeysetScrollPosition position, int size) {
         States state = opState.map(States::valueOf).orElse(States.ALL);
-        LocalDateTime currentDate = LocalDateTime.now(ZoneOffset.UTC);
-        return switch (state) {
-            case ALL -> bookingRepository.findAllByBookerId(bookerId).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case CURRENT -> bookingRepository.findAllByBookerIdAndStatus(bookerId, Status.APPROVED).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case PAST -> bookingRepository.findAllByBookerIdAndPast(bookerId, currentDate).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case FUTURE -> bookingRepository.findAllByBookerIdAndFuture(bookerId, currentDate).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case WAITING -> bookingRepository.findAllByBookerIdAndStatus(bookerId, Status.WAITING).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-            case REJECTED -> bookingRepository.findAllByBookerIdAndStatus(bookerId, Status.REJECTED).stream()
-                    .map(BookingMapper::toBookingDto)
-                    .toList();
-        };
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        Window<BookingView> window = bookingViewRepository.scroll(Booking.class, scope.and(inState(state, now)),
+                position, size);
+        if (!ARCHIVED_STATES.contains(state)) {
+            return window.map(BookingMapper::toBookingDto);
+        }
+        Window<BookingView> archived = bookingViewRepository.scroll(ArchivedBooking.class,
+                archivedScope.and(inState(state, now)), position, size);
+        return merge(window, archived, size);
+    }
+
+    /**
+     * Обе страницы выбраны от одной позиции в одном порядке, поэтому первые size строк их слияния -
+     * та же страница, что вернула бы одна общая таблица. Позиция строки строится из тех же ключей start и id.
+     */
+    private static Window<BookingOutDto> merge(Window<BookingView> hot, Window<BookingView> archived, int size) {
+        List<BookingView> rows = new ArrayList<>(hot.size() + archived.size());
+        hot.forEach(rows::add);
+        archived.forEach(rows::add);
+        rows.sort(Comparator.comparing(BookingView::start).thenComparing(BookingView::id).reversed());
+        List<BookingView> page = rows.size() > size ? rows.subList(0, size) : rows;
+        boolean hasNext = rows.size() > size || hot.hasNext() || archived.hasNext();
+        return Window.from(page.stream().map(BookingMapper::toBookingDto).toList(),
+                i -> BookingViewRepository.positionOf(page.get(i)), hasNext);
+    }
+
+    private static void checkPageSize(int size) {
+        if (size <= 0) {
+            throw new ValidateException("Неверные параметры пагинации");
+        }
     }
 }
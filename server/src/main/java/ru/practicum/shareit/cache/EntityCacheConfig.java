@@ -0,0 +1,88 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.CacheSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.ObjectUtils;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate в памяти процесса: JCache поверх Caffeine. Все регионы создаются здесь
+ * с ограничением размера и срока жизни записи; регион, которого здесь нет, Hibernate не заводит, а падает при старте.
+ * Кэш включается вместе с этой конфигурацией: в application.properties он выключен, и срезы контекста без неё
+ * (@DataJpaTest) работают без кэша, а не с регионами, которые Hibernate создал бы сам.
+ */
+@Configuration
+public class EntityCacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+    // Кэш запросов разбит по таблицам, чтобы ленту изменений можно было применять к своей части
+    public static final String ITEM_QUERIES = "item-queries";
+    public static final String BOOKING_QUERIES = "booking-queries";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${shareit.entity-cache.max-size:10000}") long maxSize,
+                                           @Value("${shareit.entity-cache.ttl:PT10M}") Duration ttl,
+                                           @Value("${shareit.entity-cache.query-max-size:1000}") long queryMaxSize,
+                                           @Value("${shareit.entity-cache.query-ttl:PT1M}") Duration queryTtl) {
+        // У каждого контекста свой менеджер: регионы не делятся между контекстами и закрываются вместе с ним
+        URI uri = URI.create("shareit-entities-" + ObjectUtils.getIdentityHexString(this));
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(uri, getClass().getClassLoader());
+        cacheManager.createCache(USERS, region(maxSize, ttl));
+        cacheManager.createCache(ITEMS, region(maxSize, ttl));
+        cacheManager.createCache(ITEM_QUERIES, region(queryMaxSize, queryTtl));
+        cacheManager.createCache(BOOKING_QUERIES, region(queryMaxSize, queryTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryMaxSize, queryTtl));
+        // Отметки времени изменения таблиц, по одной на таблицу: вытесненная отметка выдала бы устаревший результат
+        // запроса за свежий, поэтому у региона нет ни размера, ни срока жизни
+        CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+        timestamps.setStoreByValue(false);
+        timestamps.setStatisticsEnabled(true);
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, timestamps);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(CacheSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(CacheSettings.USE_QUERY_CACHE, true);
+            properties.put(CacheSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    // Попадания, промахи, вставки и вытеснения по каждому региону: метрики cache.* с тегом cache
+    @Bean
+    public MeterBinder entityCacheMetrics(CacheManager entityCacheManager) {
+        return registry -> entityCacheManager.getCacheNames()
+                .forEach(name -> JCacheMetrics.monitor(registry, entityCacheManager.getCache(name)));
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        region.setMaximumSize(OptionalLong.of(maxSize));
+        region.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        // Hibernate кладёт в кэш уже разобранное состояние сущности, копировать его при каждом обращении незачем
+        region.setStoreByValue(false);
+        region.setStatisticsEnabled(true);
+        return region;
+    }
+}
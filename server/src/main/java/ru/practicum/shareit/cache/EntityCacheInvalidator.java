@@ -0,0 +1,53 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.ChangeSubscriber;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+/**
+ * Применяет ленту изменений к кэшу второго уровня. Свои изменения Hibernate отражает в кэше сам,
+ * а изменения других узлов доходят только через ленту: без неё кэш узла расходился бы с базой до истечения записей.
+ * Вытеснение идемпотентно, повторная пачка лишь заставит перечитать строки.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheInvalidator implements ChangeSubscriber {
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onChanges(List<OutboxEvent> events) {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean items = false;
+        boolean bookings = false;
+        for (OutboxEvent event : events) {
+            switch (event.getAggregate()) {
+                case USER -> cache.evictEntityData(User.class, event.getAggregateId());
+                // Комментарий строку вещи не меняет
+                case ITEM -> {
+                    if (event.getType() != ChangeType.COMMENTED) {
+                        cache.evictEntityData(Item.class, event.getAggregateId());
+                        items = true;
+                    }
+                }
+                case BOOKING -> bookings = true;
+                case REQUEST -> {
+                }
+            }
+        }
+        if (items) {
+            cache.evictQueryRegion(EntityCacheConfig.ITEM_QUERIES);
+        }
+        if (bookings) {
+            cache.evictQueryRegion(EntityCacheConfig.BOOKING_QUERIES);
+        }
+    }
+}
@@ -5,9 +5,12 @@ import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
+
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CommentMapper {
     public static Comment toComment(CommentDto dto, User author, Item item) {
@@ -28,4 +31,10 @@ public class CommentMapper {
         dto.setCreated(comment.getCreated().toString());
         return dto;
     }
+
+    // Время комментария не хранится, как и у сущности: created - момент чтения
+    public static CommentOutDto toOutDto(CommentView comment) {
+        return new CommentOutDto(comment.id(), comment.text(), comment.itemName(), comment.authorName(),
+                LocalDateTime.now().toString());
+    }
 }
@@ -1,12 +1,18 @@
 package ru.practicum.shareit.item;
 
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.services.ItemService;
+import ru.practicum.shareit.outbox.Aggregate;
 import ru.practicum.shareit.utils.HttpHeaders;
+import ru.practicum.shareit.utils.KeysetPages;
+import ru.practicum.shareit.utils.ResponseBodyCache;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,17 +21,19 @@ import java.util.Optional;
 @RequestMapping("/items")
 public class ItemController {
     private ItemService itemService;
+    private ResponseBodyCache responseBodyCache;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> getItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId) {
-        return itemService.getItems(userId);
+    public ResponseEntity<List<ItemGetDto>> getItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "10") int size) {
+        return KeysetPages.toResponse(
+                itemService.getItems(userId, KeysetPages.decode(cursor, KeysetPages.ID_KEYS), size));
     }
 
     @GetMapping("/{itemId}")
-    @ResponseStatus(HttpStatus.OK)
-    public ItemGetDto getItemById(@PathVariable("itemId") long itemId) {
-        return itemService.getItemById(itemId);
+    public ResponseEntity<byte[]> getItemById(@PathVariable("itemId") long itemId) {
+        return responseBodyCache.respond(Aggregate.ITEM, itemId, itemService.getItemById(itemId));
     }
 
     @PostMapping
@@ -43,8 +51,18 @@ public class ItemController {
 
     @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public List<ItemDto> foundItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId, @RequestParam Optional<String> text) {
-        return itemService.foundItem(userId, text);
+    public List<ItemDto> foundItem(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long userId, @RequestParam Optional<String> text,
+                                   @RequestParam(defaultValue = "0") int from,
+                                   @RequestParam(defaultValue = "10") int size) {
+        return itemService.foundItem(userId, text, from, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    @ResponseStatus(HttpStatus.OK)
+    public List<FreePeriodDto> getAvailability(@PathVariable("itemId") long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @PostMapping("/{itemId}/comment")
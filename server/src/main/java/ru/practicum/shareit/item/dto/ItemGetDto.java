@@ -4,7 +4,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 
 import java.util.List;
 
@@ -19,7 +19,16 @@ public class ItemGetDto {
     private Boolean available;
     @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     private Long request;
-    private String lastBooking;
-    private String nextBooking;
-    private List<Comment> comments;
+    private BookingShortDto lastBooking;
+    private BookingShortDto nextBooking;
+    private List<CommentOutDto> comments = List.of();
+
+    // Для выборки конструктором в JPQL: бронирования и комментарии дозаполняет сервис
+    public ItemGetDto(Long id, String name, String description, Boolean available, Long request) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.available = available;
+        this.request = request;
+    }
 }
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemShortDto(Long id, String name) {
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.model;
+
+/**
+ * Комментарий в карточке вещи: текст и имена вместо сущностей вещи и автора.
+ */
+public record CommentView(Long id, Long itemId, String text, String itemName, String authorName) {
+}
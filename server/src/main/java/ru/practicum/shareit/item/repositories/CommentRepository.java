@@ -1,10 +1,20 @@
 package ru.practicum.shareit.item.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long itemId);
+    @Query("SELECT new ru.practicum.shareit.item.model.CommentView(c.id, c.item.id, c.text, c.item.name, c.author.name) " +
+            "FROM Comment c WHERE c.item.id = :itemId ORDER BY c.id")
+    List<CommentView> findViewsByItemId(@Param("itemId") Long itemId);
+
+    @Query("SELECT new ru.practicum.shareit.item.model.CommentView(c.id, c.item.id, c.text, c.item.name, c.author.name) " +
+            "FROM Comment c WHERE c.item.id IN :itemIds ORDER BY c.id")
+    List<CommentView> findViewsByItemIds(@Param("itemIds") Collection<Long> itemIds);
 }
@@ -1,22 +1,86 @@
 package ru.practicum.shareit.item.repositories;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.cache.EntityCacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemGetDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    @Query("SELECT i FROM Item i WHERE (LOWER(i.name) = LOWER(:text) OR LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) = LOWER(:text) OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
-            "AND i.available = true")
-    List<Item> findByNameOrDescriptionContaining(@Param("text") String text);
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.available = true")
+    List<ItemDto> findAllAvailableForSearch();
 
-    List<Item> findByOwnerId(Long userId);
+    // Для ленты изменений: DTO-запрос идёт мимо кэша второго уровня, который мог ещё не получить то же событие
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.id IN :itemIds")
+    List<ItemDto> findForSearchByIds(@Param("itemIds") Collection<Long> itemIds);
 
+    // Карточка вещи без владельца и запроса: id запроса берётся из внешнего ключа
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.ITEM_QUERIES)})
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemGetDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.id = :itemId")
+    Optional<ItemGetDto> findViewById(@Param("itemId") Long itemId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.ITEM_QUERIES)})
+    @Query("SELECT i.available FROM Item i WHERE i.id = :itemId")
+    Optional<Boolean> findAvailableById(@Param("itemId") Long itemId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.ITEM_QUERIES)})
+    boolean existsByOwnerId(Long ownerId);
+
+    // Условное обновление без чтения версии: одновременные подтверждения бронирований вещи не конфликтуют
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.available = false, i.blockedByBooking = true, i.version = i.version + 1 " +
+            "WHERE i.id = :itemId AND i.available = true")
+    int markUnavailable(@Param("itemId") Long itemId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.available = false, i.blockedByBooking = true, i.version = i.version + 1 " +
+            "WHERE i.id IN :itemIds AND i.available = true")
+    int markAllUnavailable(@Param("itemIds") Collection<Long> itemIds);
+
+    /**
+     * Занятые бронированием вещи завершённых бронирований, у которых не осталось подтверждённых незакончившихся
+     * бронирований. Вещи, снятые владельцем, сюда не попадают.
+     */
+    @Query("SELECT i FROM Item i WHERE i.id IN (SELECT b.item.id FROM Booking b WHERE b.id IN :bookingIds) " +
+            "AND i.available = false AND i.blockedByBooking = true " +
+            "AND NOT EXISTS (SELECT a FROM Booking a WHERE a.item = i AND a.status = 'APPROVED' AND a.end > :now)")
+    List<Item> findRestorable(@Param("bookingIds") Collection<Long> bookingIds, @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Item i SET i.available = true, i.blockedByBooking = false, i.version = i.version + 1 " +
+            "WHERE i.id IN :itemIds AND i.available = false AND i.blockedByBooking = true " +
+            "AND NOT EXISTS (SELECT a FROM Booking a WHERE a.item = i AND a.status = 'APPROVED' AND a.end > :now)")
+    int markAvailable(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+
+    @Query("SELECT new ru.practicum.shareit.item.dto.ItemGetDto(i.id, i.name, i.description, i.available, i.request.id) " +
+            "FROM Item i WHERE i.owner.id = :ownerId AND i.id > :afterId ORDER BY i.id")
+    List<ItemGetDto> findViewsByOwnerId(@Param("ownerId") Long ownerId, @Param("afterId") Long afterId, Limit limit);
+
+    // Кэш запроса хранит только id вещей, сами вещи берутся из кэша сущностей
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.ITEM_QUERIES)})
     List<Item> findByRequestId(Long requestId);
 
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = EntityCacheConfig.ITEM_QUERIES)})
     @Query("SELECT i FROM Item i WHERE i.request.id IN :requestIds")
     List<Item> findByRequestIds(@Param("requestIds") List<Long> requestIds);
 }
@@ -0,0 +1,273 @@
+package ru.practicum.shareit.item.services;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeSubscriber;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * N-граммный индекс доступных вещей по названию и описанию.
+ * Отвечает так же, как подстрочный поиск LOWER(name) LIKE '%text%' OR LOWER(description) LIKE '%text%':
+ * кандидаты берутся пересечением списков n-грамм запроса и затем проверяются на вхождение подстроки.
+ * Найденные вещи ранжируются по BM25F, где совпадение в названии весит больше, чем в описании,
+ * и отбираются кучей размером from + size, так что память не зависит от числа совпадений.
+ * Свои изменения узел применяет сразу после фиксации, чужие - по ленте изменений, перечитывая вещи из базы.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndex implements ChangeSubscriber {
+    // Для запросов короче трёх символов индексируются также одно- и двухсимвольные граммы
+    private static final int MAX_GRAM = 3;
+    private static final double NAME_WEIGHT = 3.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Лучшая вещь - с большей оценкой, при равенстве - с меньшим id
+    private static final Comparator<Scored> WORST_FIRST = Comparator.comparingDouble(Scored::score)
+            .thenComparing(Scored::id, Comparator.reverseOrder());
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    // Суммарная длина полей в словах, для средней длины в нормализации BM25
+    private long nameLengthTotal;
+    private long descriptionLengthTotal;
+
+    @PostConstruct
+    public void rebuild() {
+        List<ItemDto> available = itemRepository.findAllAvailableForSearch();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            nameLengthTotal = 0;
+            descriptionLengthTotal = 0;
+            available.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Поисковый индекс вещей построен: {} доступных вещей, {} грамм", available.size(), postings.size());
+    }
+
+    /**
+     * Обновляет вещь в индексе после фиксации текущей транзакции; недоступная вещь из индекса удаляется.
+     */
+    public void index(Item item) {
+        ItemDto snapshot = ItemMapper.toItemDto(item);
+        afterCommit(() -> reindex(List.of(snapshot.getId()), List.of(snapshot)));
+    }
+
+    /**
+     * Перечитывает из базы вещи из событий ленты: так индекс узнаёт об изменениях, сделанных на других узлах.
+     * Вещь, которой в базе уже нет, из индекса удаляется.
+     */
+    @Override
+    public void onChanges(List<OutboxEvent> events) {
+        Set<Long> ids = new HashSet<>();
+        events.stream()
+                .filter(event -> event.getAggregate() == Aggregate.ITEM && event.getType() != ChangeType.COMMENTED)
+                .forEach(event -> ids.add(event.getAggregateId()));
+        if (!ids.isEmpty()) {
+            reindex(ids, itemRepository.findForSearchByIds(ids));
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        String query = normalize(text);
+        if (query.isEmpty() || size <= 0) {
+            return Collections.emptyList();
+        }
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        lock.readLock().lock();
+        try {
+            double avgNameLength = Math.max(1.0, (double) nameLengthTotal / Math.max(1, entries.size()));
+            double avgDescriptionLength = Math.max(1.0, (double) descriptionLengthTotal / Math.max(1, entries.size()));
+            PriorityQueue<Scored> top = new PriorityQueue<>(Math.min(limit, 1024), WORST_FIRST);
+            List<Set<Long>> lists = postingLists(query);
+            for (Long id : lists.isEmpty() ? Set.<Long>of() : lists.getFirst()) {
+                if (!containsInAll(lists, id)) {
+                    continue;
+                }
+                Entry entry = entries.get(id);
+                int nameHits = occurrences(entry.name, query);
+                int descriptionHits = occurrences(entry.description, query);
+                if (nameHits == 0 && descriptionHits == 0) {
+                    continue;
+                }
+                Scored scored = new Scored(id, score(entry, nameHits, descriptionHits, avgNameLength,
+                        avgDescriptionLength));
+                if (top.size() < limit) {
+                    top.add(scored);
+                } else if (WORST_FIRST.compare(scored, top.peek()) > 0) {
+                    top.poll();
+                    top.add(scored);
+                }
+            }
+
+            List<ItemDto> page = new ArrayList<>(Math.max(0, top.size() - from));
+            while (top.size() > from) {
+                page.add(copy(entries.get(top.poll().id()).item));
+            }
+            Collections.reverse(page);
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * BM25F по двум полям. Запрос ищется целиком как подстрока, поэтому idf у всех найденных вещей одинаков
+     * и на порядок не влияет - он опущен.
+     */
+    private static double score(Entry entry, int nameHits, int descriptionHits,
+                                double avgNameLength, double avgDescriptionLength) {
+        double tf = NAME_WEIGHT * nameHits / (1 - B + B * entry.nameLength / avgNameLength)
+                + DESCRIPTION_WEIGHT * descriptionHits / (1 - B + B * entry.descriptionLength / avgDescriptionLength);
+        return tf * (K1 + 1) / (tf + K1);
+    }
+
+    private static int occurrences(String field, String query) {
+        int count = 0;
+        for (int i = field.indexOf(query); i >= 0; i = field.indexOf(query, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Списки вещей по граммам запроса, от самого короткого; пустой результат, если какой-то граммы нет в индексе.
+     */
+    private List<Set<Long>> postingLists(String query) {
+        int gram = Math.min(query.length(), MAX_GRAM);
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String g : grams(query, gram)) {
+            Set<Long> ids = postings.get(g);
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        return lists;
+    }
+
+    private static boolean containsInAll(List<Set<Long>> lists, Long id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void reindex(Collection<Long> ids, List<ItemDto> items) {
+        lock.writeLock().lock();
+        try {
+            ids.forEach(this::remove);
+            items.stream()
+                    .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                    .forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(ItemDto item) {
+        String name = normalize(item.getName());
+        String description = normalize(item.getDescription());
+        Entry entry = new Entry(item, name, description, words(name), words(description));
+        entries.put(item.getId(), entry);
+        nameLengthTotal += entry.nameLength;
+        descriptionLengthTotal += entry.descriptionLength;
+        entry.grams().forEach(g -> postings.computeIfAbsent(g, k -> new HashSet<>()).add(item.getId()));
+    }
+
+    private void remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        nameLengthTotal -= entry.nameLength;
+        descriptionLengthTotal -= entry.descriptionLength;
+        entry.grams().forEach(g -> {
+            Set<Long> ids = postings.get(g);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                postings.remove(g);
+            }
+        });
+    }
+
+    private static Set<String> grams(String value, int length) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + length <= value.length(); i++) {
+            result.add(value.substring(i, i + length));
+        }
+        return result;
+    }
+
+    private static int words(String value) {
+        int count = 0;
+        boolean inWord = false;
+        for (int i = 0; i < value.length(); i++) {
+            boolean letter = Character.isLetterOrDigit(value.charAt(i));
+            if (letter && !inWord) {
+                count++;
+            }
+            inWord = letter;
+        }
+        return Math.max(1, count);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static ItemDto copy(ItemDto item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequestId());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Scored(Long id, double score) {
+    }
+
+    private record Entry(ItemDto item, String name, String description, int nameLength, int descriptionLength) {
+        Set<String> grams() {
+            Set<String> result = new HashSet<>();
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                result.addAll(ItemSearchIndex.grams(name, length));
+                result.addAll(ItemSearchIndex.grams(description, length));
+            }
+            return result;
+        }
+    }
+}
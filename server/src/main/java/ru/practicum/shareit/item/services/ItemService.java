@@ -1,12 +1,15 @@
 package ru.practicum.shareit.item.services;
 
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.item.dto.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemService {
-    List<ItemDto> getItems(Long userId);
+    Window<ItemGetDto> getItems(Long userId, KeysetScrollPosition position, int size);
 
     ItemGetDto getItemById(long itemId);
 
@@ -14,7 +17,9 @@ public interface ItemService {
 
     ItemDto updateItem(Long userId, Long itemId, ItemDto dto);
 
-    List<ItemDto> foundItem(Long userId, Optional<String> text);
+    List<ItemDto> foundItem(Long userId, Optional<String> text, int from, int size);
+
+    List<FreePeriodDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentOutDto createComment(Long authorId, Long itemId, CommentDto dto);
 }
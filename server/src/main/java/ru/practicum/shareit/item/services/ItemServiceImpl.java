@@ -1,28 +1,42 @@
 package ru.practicum.shareit.item.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidateException;
 import ru.practicum.shareit.item.CommentMapper;
 import ru.practicum.shareit.item.ItemMapper;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.CommentRepository;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.request.services.RequestViewCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.utils.KeysetPages;
 
 import java.time.*;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional(readOnly = true)
@@ -31,29 +45,68 @@ public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemViewCache itemViewCache;
+    private final RequestViewCache requestViewCache;
+    private final Outbox outbox;
 
     @Override
-    public List<ItemDto> getItems(Long userId) {
-        return itemRepository.findByOwnerId(userId).stream()
-                .map(ItemMapper::toItemDto)
-                .toList();
+    public Window<ItemGetDto> getItems(Long userId, KeysetScrollPosition position, int size) {
+        if (size <= 0) {
+            throw new ValidateException("Неверные параметры пагинации");
+        }
+        // Вещи страницы, их бронирования и комментарии - по одному запросу на всех, независимо от числа вещей;
+        // все три выбираются сразу в поля ответа, без сущностей и их связей
+        Window<ItemGetDto> items = KeysetPages.byId(
+                itemRepository.findViewsByOwnerId(userId, KeysetPages.afterId(position), Limit.of(size + 1)),
+                size, ItemGetDto::getId);
+        if (items.isEmpty()) {
+            return Window.from(List.of(), i -> ScrollPosition.keyset(), false);
+        }
+        List<Long> itemIds = items.getContent().stream().map(ItemGetDto::getId).toList();
+        LocalDateTime ldt = currentDateTime();
+
+        Map<Long, BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, BookingShortDto> nextBookings = new HashMap<>();
+        for (BookingShortDto booking : bookingRepository.findLastAndNextBookings(itemIds, ldt)) {
+            Map<Long, BookingShortDto> target = booking.start().isAfter(ldt) ? nextBookings : lastBookings;
+            target.putIfAbsent(booking.itemId(), booking);
+        }
+        Map<Long, List<CommentOutDto>> comments = commentRepository.findViewsByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(CommentView::itemId,
+                        Collectors.mapping(CommentMapper::toOutDto, Collectors.toList())));
+
+        items.forEach(item -> {
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+            item.setComments(comments.getOrDefault(item.getId(), List.of()));
+        });
+        return items;
     }
 
+    // Попадание в кэш карточек не берёт соединение с базой: транзакция открывается, только если она уже есть
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemGetDto getItemById(long itemId) {
-        Item item = itemRepository.findById(itemId).orElseThrow(NotFoundException::new);
-        LocalDateTime ldt = LocalDateTime.now();
-        ZonedDateTime zoned = ldt.atZone(ZoneId.of("UTC"));
-        Instant instant = zoned.toInstant();
-        ldt = instant.atZone(ZoneId.of("Europe/Moscow")).toLocalDateTime();
-        List<Booking> lastList = bookingRepository.findLastBooking(item.getId(), ldt);
-        Booking last = !lastList.isEmpty() ? lastList.getFirst() : null;
-        List<Booking> nextList = bookingRepository.findNextBooking(item.getId(), ldt);
-        Booking next = !nextList.isEmpty() ? nextList.getFirst() : null;
-        List<Comment> comments = commentRepository.findByItemId(item.getId());
-
-        return itemRepository.findById(itemId).map(i -> ItemMapper.toItemGetDto(i, last, next, comments)).orElse(null);
+        return itemViewCache.get(itemId, this::loadItemView);
+    }
+
+    // Вещь, ближайшие бронирования и комментарии - по одному запросу, сразу в поля ответа и без связей сущностей
+    private ItemGetDto loadItemView(long itemId) {
+        ItemGetDto item = itemRepository.findViewById(itemId).orElseThrow(NotFoundException::new);
+        LocalDateTime ldt = currentDateTime();
+        item.setLastBooking(bookingRepository.findLastBooking(itemId, ldt, Limit.of(1)).stream()
+                .findFirst()
+                .orElse(null));
+        item.setNextBooking(bookingRepository.findNextBooking(itemId, ldt, Limit.of(1)).stream()
+                .findFirst()
+                .orElse(null));
+        item.setComments(commentRepository.findViewsByItemId(itemId).stream()
+                .map(CommentMapper::toOutDto)
+                .toList());
+        return item;
     }
 
     @Override
@@ -74,6 +127,11 @@ public class ItemServiceImpl implements ItemService {
             itemToAdd.setRequest(null);
         }
         itemRepository.save(itemToAdd);
+        itemSearchIndex.index(itemToAdd);
+        outbox.record(Aggregate.ITEM, itemToAdd.getId(), ChangeType.CREATED);
+        if (itemToAdd.getRequest() != null) {
+            answerChanged(itemToAdd.getRequest().getId());
+        }
 
         return ItemMapper.toItemDto(itemToAdd);
     }
@@ -88,6 +146,7 @@ public class ItemServiceImpl implements ItemService {
         if (!Objects.equals(opItem.get().getOwner().getId(), userId)) {
             throw new NotFoundException("Неверный владелец вещи");
         }
+        boolean renamed = Objects.nonNull(dto.getName()) && !dto.getName().equals(opItem.get().getName());
         if (Objects.nonNull(dto.getName())) {
             opItem.get().setName(dto.getName());
         }
@@ -95,39 +154,89 @@ public class ItemServiceImpl implements ItemService {
             opItem.get().setDescription(dto.getDescription());
         }
         if (Objects.nonNull(dto.getAvailable())) {
+            // Доступность, выставленная владельцем, фоновым процессом больше не меняется
             opItem.get().setAvailable(dto.getAvailable());
+            opItem.get().setBlockedByBooking(false);
+        }
+        try {
+            itemRepository.saveAndFlush(opItem.get());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConflictException("Вещь изменена другим запросом");
+        }
+        itemSearchIndex.index(opItem.get());
+        itemViewCache.evict(itemId);
+        outbox.record(Aggregate.ITEM, itemId, ChangeType.UPDATED);
+        if (renamed && opItem.get().getRequest() != null) {
+            answerChanged(opItem.get().getRequest().getId());
         }
-        itemRepository.save(opItem.get());
         return ItemMapper.toItemDto(opItem.get());
     }
 
     @Override
-    public List<ItemDto> foundItem(Long userId, Optional<String> text) {
+    public List<ItemDto> foundItem(Long userId, Optional<String> text, int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new ValidateException("Неверные параметры пагинации");
+        }
         if (text.isPresent() && !text.get().isBlank()) {
-            return itemRepository.findByNameOrDescriptionContaining(text.get()).stream()
-                    .map(ItemMapper::toItemDto)
-                    .toList();
+            return itemSearchIndex.search(text.get(), from, size);
         }
         return Collections.emptyList();
     }
 
+    @Override
+    public List<FreePeriodDto> getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidateException("Начало периода должно быть раньше конца");
+        }
+        boolean available = itemRepository.findAvailableById(itemId).orElseThrow(NotFoundException::new);
+        if (!available) {
+            return Collections.emptyList();
+        }
+        // Занятые периоды приходят упорядоченными по началу: свободное время - промежутки между ними за один проход
+        List<FreePeriodDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (BookingPeriod busy : bookingRepository.findPeriodsBetween(itemId, Status.BLOCKING, from, to)) {
+            if (busy.start().isAfter(freeFrom)) {
+                free.add(new FreePeriodDto(freeFrom, busy.start()));
+            }
+            if (busy.end().isAfter(freeFrom)) {
+                freeFrom = busy.end();
+            }
+        }
+        if (freeFrom.isBefore(to)) {
+            free.add(new FreePeriodDto(freeFrom, to));
+        }
+        return free;
+    }
+
     @Override
     @Transactional
     public CommentOutDto createComment(Long authorId, Long itemId, CommentDto dto) {
-        Booking booking = bookingRepository.findByBookerIdAndItemId(authorId, itemId).orElseThrow(NotFoundException::new);
-        LocalDateTime ldt = LocalDateTime.now();
-
-        if (booking.getEnd().isAfter(ldt)) {
-            throw new ValidateException("Ошибка введенных данных");
-        }
-        if (booking.getStatus().equals(Status.APPROVED)) {
-            Item item = itemRepository.findById(itemId).orElseThrow(NotFoundException::new);
-            User user = userRepository.findById(authorId).orElseThrow(NotFoundException::new);
-            Comment comment = CommentMapper.toComment(dto, user, item);
-            commentRepository.save(comment);
-            return CommentMapper.toOutDto(comment);
+        Optional<Booking> opBooking = bookingRepository.findByBookerIdAndItemId(authorId, itemId);
+        if (opBooking.isPresent()) {
+            Booking booking = opBooking.get();
+            if (booking.getEnd().isAfter(LocalDateTime.now())
+                    || (booking.getStatus() != Status.APPROVED && booking.getStatus() != Status.FINISHED)) {
+                throw new ValidateException("Ошибка введенных данных");
+            }
+        } else if (!archivedBookingRepository.existsByBookerIdAndItemIdAndStatus(authorId, itemId, Status.FINISHED)) {
+            // В архиве только давно закончившиеся бронирования: подходит любое завершённое
+            throw new NotFoundException();
         }
-        throw new ValidateException("Ошибка введенных данных");
+        Item item = itemRepository.findById(itemId).orElseThrow(NotFoundException::new);
+        User user = userRepository.findById(authorId).orElseThrow(NotFoundException::new);
+        Comment comment = CommentMapper.toComment(dto, user, item);
+        commentRepository.save(comment);
+        itemViewCache.evict(itemId);
+        outbox.record(Aggregate.ITEM, itemId, ChangeType.COMMENTED);
+        return CommentMapper.toOutDto(comment);
+    }
+
+    static LocalDateTime currentDateTime() {
+        LocalDateTime ldt = LocalDateTime.now();
+        ZonedDateTime zoned = ldt.atZone(ZoneId.of("UTC"));
+        Instant instant = zoned.toInstant();
+        return instant.atZone(ZoneId.of("Europe/Moscow")).toLocalDateTime();
     }
 
     public Item checkItem(Item item) {
@@ -142,4 +251,10 @@ public class ItemServiceImpl implements ItemService {
         }
         return item;
     }
+
+    // Ответ на запрос - это id, название и владелец вещи: запрос меняется при новом ответе и переименовании вещи
+    private void answerChanged(Long requestId) {
+        requestViewCache.evict(requestId);
+        outbox.record(Aggregate.REQUEST, requestId, ChangeType.UPDATED);
+    }
 }
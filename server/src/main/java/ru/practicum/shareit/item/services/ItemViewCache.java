@@ -0,0 +1,95 @@
+package ru.practicum.shareit.item.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.item.dto.ItemGetDto;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeSubscriber;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.utils.ViewCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Собранные карточки вещей (GET /items/{itemId}) в памяти узла, с ограничением размера и вытеснением W-TinyLFU.
+ * Карточка меняется вместе с вещью, её комментариями и подтверждением её бронирований: эти записи вытесняют
+ * карточку сами, а изменения других узлов приходят через ленту изменений. Текущее и следующее бронирования
+ * зависят ещё и от времени, поэтому запись живёт только до конца текущего или начала следующего из них.
+ */
+@Component
+public class ItemViewCache implements ChangeSubscriber, MeterBinder {
+    private final ViewCache<ItemGetDto> views;
+
+    public ItemViewCache(@Value("${shareit.item-views.max-size:10000}") long maxSize,
+                         @Value("${shareit.item-views.ttl:PT10M}") Duration ttl) {
+        views = new ViewCache<>(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilBookingBoundary(ttl))
+                .recordStats()
+                .buildAsync());
+    }
+
+    public ItemGetDto get(long itemId, Function<Long, ItemGetDto> loader) {
+        return views.get(itemId, loader);
+    }
+
+    public void evict(Long itemId) {
+        evict(List.of(itemId));
+    }
+
+    public void evict(Collection<Long> itemIds) {
+        views.evict(itemIds);
+    }
+
+    // Подтверждение бронирования, как и любое изменение вещи, пишет в журнал событие вещи
+    @Override
+    public void onChanges(List<OutboxEvent> events) {
+        views.evictNow(events.stream()
+                .filter(event -> event.getAggregate() == Aggregate.ITEM)
+                .map(OutboxEvent::getAggregateId)
+                .toList());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, views.cache(), "item-views");
+    }
+
+    // Ближайшая смена текущего или следующего бронирования, но не дольше ttl
+    private record UntilBookingBoundary(Duration ttl) implements Expiry<Long, ItemGetDto> {
+        @Override
+        public long expireAfterCreate(Long itemId, ItemGetDto view, long currentTime) {
+            LocalDateTime now = ItemServiceImpl.currentDateTime();
+            Duration fresh = ttl;
+            BookingShortDto last = view.getLastBooking();
+            if (last != null && Duration.between(now, last.end()).compareTo(fresh) < 0) {
+                fresh = Duration.between(now, last.end());
+            }
+            BookingShortDto next = view.getNextBooking();
+            if (next != null && Duration.between(now, next.start()).compareTo(fresh) < 0) {
+                fresh = Duration.between(now, next.start());
+            }
+            return Math.max(0, fresh.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemGetDto view, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, view, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemGetDto view, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox;
+
+// Сущность, изменение которой записано в журнал
+public enum Aggregate {
+    USER,
+    ITEM,
+    REQUEST,
+    BOOKING
+}
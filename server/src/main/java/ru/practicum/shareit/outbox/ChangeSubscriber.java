@@ -0,0 +1,12 @@
+package ru.practicum.shareit.outbox;
+
+import java.util.List;
+
+/**
+ * Подписчик ленты изменений. Получает события пачками в порядке их записи.
+ * Доставка "хотя бы один раз": если подписчик бросит исключение, пачка придёт повторно, поэтому обработка
+ * должна быть идемпотентной.
+ */
+public interface ChangeSubscriber {
+    void onChanges(List<OutboxEvent> events);
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.outbox;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED,
+    // К вещи добавлен комментарий
+    COMMENTED,
+    // Переходы бронирования называются по новому статусу
+    APPROVED,
+    REJECTED,
+    EXPIRED,
+    FINISHED
+}
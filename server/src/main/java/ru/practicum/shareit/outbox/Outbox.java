@@ -0,0 +1,45 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * Запись изменений в журнал outbox_events. Вызывается только внутри транзакции изменения:
+ * событие фиксируется или откатывается вместе с ним.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class Outbox {
+    private final OutboxEventRepository outboxEventRepository;
+
+    public void record(Aggregate aggregate, Long aggregateId, ChangeType type) {
+        outboxEventRepository.save(new OutboxEvent(aggregate, aggregateId, type, now()));
+    }
+
+    /**
+     * Одна вставка на весь пакет переходов бронирований в статус status.
+     */
+    public void recordBookingTransitions(Collection<Long> bookingIds, Status status) {
+        if (!bookingIds.isEmpty()) {
+            outboxEventRepository.recordBookingTransitions(bookingIds, status.name(), now());
+        }
+    }
+
+    public void recordItems(Collection<Long> itemIds, ChangeType type) {
+        if (!itemIds.isEmpty()) {
+            outboxEventRepository.recordItems(itemIds, type.name(), now());
+        }
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.outbox;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e WHERE e.createdAt < :before")
+    long findLastIdCreatedBefore(@Param("before") LocalDateTime before);
+
+    // Пакетные переходы бронирований пишутся одной вставкой; попадают только строки, действительно получившие статус.
+    // Без объявленной таблицы Hibernate считал бы, что вставка могла изменить что угодно, и очищал бы весь кэш
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "public.outbox_events"))
+    @Query(value = "INSERT INTO outbox_events (aggregate, aggregate_id, change_type, created_at) " +
+            "SELECT 'BOOKING', id, status, :now FROM bookings WHERE id IN (:ids) AND status = :status ORDER BY id",
+            nativeQuery = true)
+    int recordBookingTransitions(@Param("ids") Collection<Long> ids, @Param("status") String status,
+                                 @Param("now") LocalDateTime now);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "public.outbox_events"))
+    @Query(value = "INSERT INTO outbox_events (aggregate, aggregate_id, change_type, created_at) " +
+            "SELECT 'ITEM', id, :type, :now FROM items WHERE id IN (:ids) ORDER BY id",
+            nativeQuery = true)
+    int recordItems(@Param("ids") Collection<Long> ids, @Param("type") String type, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :before " +
+            "AND e.id <= (SELECT MIN(o.position) FROM OutboxOffset o)")
+    int purge(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.outbox;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "outbox_offsets", schema = "public")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxOffset {
+    @Id
+    private String consumer;
+
+    private Long position;
+
+    // Когда узел последний раз читал журнал под этим именем
+    private LocalDateTime seenAt;
+}
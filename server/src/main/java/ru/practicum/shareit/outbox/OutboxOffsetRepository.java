@@ -0,0 +1,22 @@
+package ru.practicum.shareit.outbox;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OutboxOffsetRepository extends JpaRepository<OutboxOffset, String> {
+    // Блокировка строки: узлы с одним именем подписчика не публикуют одну пачку дважды
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxOffset o WHERE o.consumer = :consumer")
+    Optional<OutboxOffset> findForUpdate(@Param("consumer") String consumer);
+
+    @Modifying
+    @Query("DELETE FROM OutboxOffset o WHERE o.seenAt < :before")
+    int deleteAbandoned(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Периодически вычитывает журнал изменений пачками, пока они приходят полными,
+ * и удаляет события, которые подписчик уже получил и которые старше срока хранения.
+ */
+@Slf4j
+@Component
+public class OutboxPoller {
+    private final OutboxPublisher outboxPublisher;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxPoller(OutboxPublisher outboxPublisher,
+                        @Value("${shareit.outbox.batch-size:500}") int batchSize,
+                        @Value("${shareit.outbox.retention:P7D}") Duration retention) {
+        this.outboxPublisher = outboxPublisher;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.outbox.poll-interval:PT1S}",
+            fixedDelayString = "${shareit.outbox.poll-interval:PT1S}")
+    public void poll() {
+        int read;
+        do {
+            read = outboxPublisher.publishBatch(LocalDateTime.now(ZoneOffset.UTC), batchSize);
+        } while (read == batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.outbox.purge-interval:PT1H}",
+            fixedDelayString = "${shareit.outbox.purge-interval:PT1H}")
+    public void purge() {
+        int purged = outboxPublisher.purge(LocalDateTime.now(ZoneOffset.UTC).minus(retention));
+        if (purged > 0) {
+            log.info("Журнал изменений: удалено {} событий", purged);
+        }
+    }
+}
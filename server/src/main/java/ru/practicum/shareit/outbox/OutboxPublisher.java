@@ -0,0 +1,189 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Читает журнал после сохранённой позиции подписчика, раздаёт события подписчикам и сдвигает позицию
+ * в той же транзакции. Позиция хранится в outbox_offsets под именем consumer: после перезапуска чтение
+ * продолжается с неё. Узлы с одним именем делят позицию и по очереди публикуют пачки под блокировкой строки,
+ * а подписчики - кэши и индексы в памяти узла, поэтому по умолчанию имя - имя хоста узла.
+ * Позиция, которую не читали дольше срока хранения журнала, считается брошенной остановленным узлом и удаляется.
+ * <p>
+ * Номера событий выдаются при вставке, а видны становятся при фиксации, поэтому пропуск в номерах может означать
+ * ещё не зафиксированную транзакцию. Публикация останавливается перед пропуском, пока следующее за ним событие
+ * не станет старше settle, а затем идёт дальше. Пропущенные номера запоминаются и перечитываются при каждом опросе
+ * ещё gap-timeout: событие медленной транзакции, появившееся за это время, доставляется позже остальных.
+ * Подписчики перечитывают состояние из базы, поэтому такой порядок им не вредит. Пропуски хранятся в памяти узла:
+ * после перезапуска кэши узла пусты и терять в них нечего.
+ * <p>
+ * По той же причине новый подписчик не перечитывает журнал, а начинает с событий, записанных позже чем за settle
+ * до создания публикатора: к этому моменту подписчики уже построены, и более ранние изменения они видят в базе.
+ * С начала журнала читает только подписчик, позиция которого уже была сохранена.
+ */
+@Slf4j
+@Component
+public class OutboxPublisher {
+    // Ограничение outbox_offsets.consumer
+    private static final int MAX_CONSUMER_LENGTH = 64;
+    // Простаивающий узел отмечается не чаще, чтобы не писать строку позиции на каждый опрос
+    private static final Duration IDLE_SEEN_INTERVAL = Duration.ofMinutes(1);
+    // Больший разрыв - это уже не незафиксированные транзакции (например, сброс последовательности), его не ждём
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxOffsetRepository outboxOffsetRepository;
+    private final List<ChangeSubscriber> subscribers;
+    private final Counter published;
+    private final String consumer;
+    private final Duration settle;
+    private final Duration gapTimeout;
+    // Подписчики создаются раньше публикатора: к этому моменту индекс построен, а кэши пусты
+    private final LocalDateTime startedAt = LocalDateTime.now(ZoneOffset.UTC);
+    // Пропущенный номер и когда его пропустили
+    private final Map<Long, LocalDateTime> gaps = new ConcurrentHashMap<>();
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository, OutboxOffsetRepository outboxOffsetRepository,
+                           List<ChangeSubscriber> subscribers, MeterRegistry meterRegistry,
+                           @Value("${shareit.outbox.consumer:}") String consumer,
+                           @Value("${shareit.outbox.settle:PT5S}") Duration settle,
+                           @Value("${shareit.outbox.gap-timeout:PT10M}") Duration gapTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxOffsetRepository = outboxOffsetRepository;
+        this.subscribers = subscribers;
+        this.consumer = consumer.isBlank() ? hostName() : consumer;
+        this.settle = settle;
+        this.gapTimeout = gapTimeout;
+        published = Counter.builder("outbox.events.published")
+                .description("События журнала, переданные подписчикам")
+                .tag("consumer", this.consumer)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Публикует не больше batchSize событий и возвращает их число: если оно равно batchSize, за ними могут быть ещё.
+     * Вместе с ними доставляются появившиеся события из пропусков; в возвращаемое число они не входят.
+     */
+    @Transactional
+    public int publishBatch(LocalDateTime now, int batchSize) {
+        OutboxOffset offset = outboxOffsetRepository.findForUpdate(consumer)
+                .orElseGet(() -> outboxOffsetRepository.save(new OutboxOffset(consumer,
+                        outboxEventRepository.findLastIdCreatedBefore(startedAt.minus(settle)), now)));
+        List<OutboxEvent> late = lateEvents(now);
+        List<OutboxEvent> events = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(offset.getPosition(),
+                Limit.of(batchSize));
+        List<Long> skipped = new ArrayList<>();
+        List<OutboxEvent> ready = settled(events, offset.getPosition(), now.minus(settle), skipped);
+        List<OutboxEvent> delivery = new ArrayList<>(late.size() + ready.size());
+        delivery.addAll(late);
+        delivery.addAll(ready);
+        if (!delivery.isEmpty()) {
+            subscribers.forEach(subscriber -> subscriber.onChanges(delivery));
+            published.increment(delivery.size());
+        }
+        // Пропуски меняются только после успешной доставки: при исключении подписчика пачка повторится целиком
+        late.forEach(event -> gaps.remove(event.getId()));
+        skipped.forEach(id -> gaps.put(id, now));
+        if (!ready.isEmpty()) {
+            offset.setPosition(ready.getLast().getId());
+        }
+        if (!ready.isEmpty() || offset.getSeenAt().isBefore(now.minus(IDLE_SEEN_INTERVAL))) {
+            offset.setSeenAt(now);
+        }
+        return ready.size();
+    }
+
+    // Удаляются только события, полученные всеми подписчиками, кроме брошенных
+    @Transactional
+    public int purge(LocalDateTime before) {
+        int abandoned = outboxOffsetRepository.deleteAbandoned(before);
+        if (abandoned > 0) {
+            log.info("Журнал изменений: удалено {} позиций остановленных узлов", abandoned);
+        }
+        return outboxEventRepository.purge(before);
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    // Появившиеся события из пропусков; пропуски старше gapTimeout больше не ждём
+    private List<OutboxEvent> lateEvents(LocalDateTime now) {
+        if (gaps.isEmpty()) {
+            return List.of();
+        }
+        List<OutboxEvent> late = new ArrayList<>(outboxEventRepository.findAllById(gaps.keySet()));
+        late.sort(Comparator.comparing(OutboxEvent::getId));
+        LocalDateTime expiredBefore = now.minus(gapTimeout);
+        gaps.entrySet().removeIf(gap -> {
+            boolean expired = gap.getValue().isBefore(expiredBefore)
+                    && late.stream().noneMatch(event -> event.getId().equals(gap.getKey()));
+            if (expired) {
+                log.warn("Журнал изменений ({}): событие {} так и не появилось за {}, считаем его откатившимся",
+                        consumer, gap.getKey(), gapTimeout);
+            }
+            return expired;
+        });
+        return late;
+    }
+
+    // Непрерывный префикс пачки; пропуск допускается, только если событие после него старше границы,
+    // и его номера складываются в skipped. Подписчик, созданный на пустом журнале, начинает с первого события:
+    // номера до него могли быть удалены очисткой
+    private List<OutboxEvent> settled(List<OutboxEvent> events, long position, LocalDateTime settledBefore,
+                                      List<Long> skipped) {
+        if (events.isEmpty()) {
+            return events;
+        }
+        long expected = position == 0 ? events.getFirst().getId() : position + 1;
+        for (int i = 0; i < events.size(); i++) {
+            OutboxEvent event = events.get(i);
+            if (event.getId() != expected) {
+                if (!event.getCreatedAt().isBefore(settledBefore)) {
+                    return events.subList(0, i);
+                }
+                skip(expected, event.getId(), skipped);
+            }
+            expected = event.getId() + 1;
+        }
+        return events;
+    }
+
+    private void skip(long from, long to, List<Long> skipped) {
+        if (to - from > MAX_TRACKED_GAP) {
+            log.warn("Журнал изменений ({}): пропущены номера {}..{}, разрыв слишком велик, чтобы ждать его",
+                    consumer, from, to - 1);
+            return;
+        }
+        log.warn("Журнал изменений ({}): пропущены номера {}..{}, они будут перечитываться ещё {}",
+                consumer, from, to - 1, gapTimeout);
+        for (long id = from; id < to; id++) {
+            skipped.add(id);
+        }
+    }
+
+    private static String hostName() {
+        try {
+            String host = InetAddress.getLocalHost().getHostName();
+            return host.length() > MAX_CONSUMER_LENGTH ? host.substring(0, MAX_CONSUMER_LENGTH) : host;
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Не удалось определить имя узла, задайте shareit.outbox.consumer", e);
+        }
+    }
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.request;
 
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.outbox.Aggregate;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.services.ItemRequestService;
 import ru.practicum.shareit.utils.HttpHeaders;
+import ru.practicum.shareit.utils.KeysetPages;
+import ru.practicum.shareit.utils.ResponseBodyCache;
 
 import java.util.List;
 
@@ -18,6 +22,7 @@ import java.util.List;
 @AllArgsConstructor
 public class ItemRequestController {
     private final ItemRequestService itemRequestService;
+    private final ResponseBodyCache responseBodyCache;
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
@@ -26,20 +31,22 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    @ResponseStatus(HttpStatus.OK)
-    public List<ItemRequestDto> foundAllItems() {
-        return itemRequestService.showAllRequests();
+    public ResponseEntity<List<ItemRequestDto>> foundAllItems(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "10") int size) {
+        return KeysetPages.toResponse(
+                itemRequestService.showAllRequests(KeysetPages.decode(cursor, KeysetPages.ID_KEYS), size));
     }
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<ItemRequestOutDto> foundItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId) {
-        return itemRequestService.showRequests(authorId);
+    public ResponseEntity<List<ItemRequestOutDto>> foundItems(@RequestHeader(HttpHeaders.SHARER_USER_ID) Long authorId,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "10") int size) {
+        return KeysetPages.toResponse(
+                itemRequestService.showRequests(authorId, KeysetPages.decode(cursor, KeysetPages.ID_KEYS), size));
     }
 
     @GetMapping("/{requestId}")
-    @ResponseStatus(HttpStatus.OK)
-    public ItemRequestOutDto foundItemsById(@PathVariable("requestId") long requestId) {
-        return itemRequestService.showRequestsById(requestId);
+    public ResponseEntity<byte[]> foundItemsById(@PathVariable("requestId") long requestId) {
+        return responseBodyCache.respond(Aggregate.REQUEST, requestId, itemRequestService.showRequestsById(requestId));
     }
 }
@@ -5,6 +5,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestAnswer;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
@@ -23,7 +24,7 @@ public class ItemRequestMapper {
         ItemRequestDto dto = new ItemRequestDto();
         dto.setId(request.getId());
         dto.setDescription(request.getDescription());
-        dto.setRequester(request.getRequester());
+        dto.setRequester(UserMapper.toUserDto(request.getRequester()));
         dto.setCreated(request.getCreated().toString());
 
         return dto;
@@ -33,7 +34,7 @@ public class ItemRequestMapper {
         ItemRequestOutDto out = new ItemRequestOutDto();
         out.setId(request.getId());
         out.setDescription(request.getDescription());
-        out.setRequester(request.getRequester());
+        out.setRequester(UserMapper.toUserDto(request.getRequester()));
         out.setCreated(request.getCreated().toString());
         out.setItems(answers);
 
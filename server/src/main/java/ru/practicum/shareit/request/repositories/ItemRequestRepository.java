@@ -1,11 +1,24 @@
 package ru.practicum.shareit.request.repositories;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
+// Автор запроса входит в каждый ответ, поэтому выбирается вместе с запросом
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requester WHERE r.id = :requestId")
+    Optional<ItemRequest> findDetailedById(@Param("requestId") Long requestId);
 
-    List<ItemRequest> findByRequesterId(Long requesterId);
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requester WHERE r.id > :id ORDER BY r.id ASC")
+    List<ItemRequest> findByIdGreaterThanOrderByIdAsc(@Param("id") Long id, Limit limit);
+
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requester WHERE r.requester.id = :requesterId AND r.id > :id " +
+            "ORDER BY r.id ASC")
+    List<ItemRequest> findByRequesterIdAndIdGreaterThanOrderByIdAsc(@Param("requesterId") Long requesterId,
+                                                                    @Param("id") Long id, Limit limit);
 }
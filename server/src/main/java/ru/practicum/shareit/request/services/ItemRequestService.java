@@ -1,16 +1,16 @@
 package ru.practicum.shareit.request.services;
 
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 
-import java.util.List;
-
 public interface ItemRequestService {
     ItemRequestDto createItemRequest(Long authorId, ItemRequestDto dto);
 
-    List<ItemRequestDto> showAllRequests();
+    Window<ItemRequestDto> showAllRequests(KeysetScrollPosition position, int size);
 
-    List<ItemRequestOutDto> showRequests(Long authorId);
+    Window<ItemRequestOutDto> showRequests(Long authorId, KeysetScrollPosition position, int size);
 
     ItemRequestOutDto showRequestsById(Long requestId);
 }
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.request.services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.exceptions.ValidateException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.ItemRequestMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
@@ -14,9 +23,8 @@ import ru.practicum.shareit.request.model.ItemRequestAnswer;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.utils.KeysetPages;
 
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -28,6 +36,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final RequestViewCache requestViewCache;
+    private final Outbox outbox;
 
     @Override
     @Transactional
@@ -36,29 +46,35 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         ItemRequest request = ItemRequestMapper.dtoToItemRequest(dto, user);
 
         itemRequestRepository.save(request);
+        outbox.record(Aggregate.REQUEST, request.getId(), ChangeType.CREATED);
         return ItemRequestMapper.requestToDto(request);
     }
 
     @Override
-    public List<ItemRequestDto> showAllRequests() {
-        return itemRequestRepository.findAll().stream()
-                .sorted(Comparator.comparing(ItemRequest::getCreated))
-                .map(ItemRequestMapper::requestToDto)
-                .toList();
+    public Window<ItemRequestDto> showAllRequests(KeysetScrollPosition position, int size) {
+        checkPageSize(size);
+        // id выдаются по возрастанию вместе с датой создания, поэтому порядок по id совпадает с порядком по created
+        return KeysetPages.byId(
+                itemRequestRepository.findByIdGreaterThanOrderByIdAsc(KeysetPages.afterId(position), Limit.of(size + 1)),
+                size, ItemRequest::getId).map(ItemRequestMapper::requestToDto);
     }
 
     @Override
-    public List<ItemRequestOutDto> showRequests(Long authorId) {
+    public Window<ItemRequestOutDto> showRequests(Long authorId, KeysetScrollPosition position, int size) {
+        checkPageSize(size);
         User user = userRepository.findById(authorId).orElseThrow(NotFoundException::new);
 
-        List<ItemRequest> requests = itemRequestRepository.findByRequesterId(user.getId());
+        Window<ItemRequest> requests = KeysetPages.byId(
+                itemRequestRepository.findByRequesterIdAndIdGreaterThanOrderByIdAsc(user.getId(),
+                        KeysetPages.afterId(position), Limit.of(size + 1)),
+                size, ItemRequest::getId);
 
         if (requests.isEmpty()) {
-            return Collections.emptyList();
+            return Window.from(List.of(), i -> ScrollPosition.keyset(), false);
         }
 
         List<Item> items = itemRepository.findByRequestIds(
-                requests.stream().map(ItemRequest::getId).toList()
+                requests.getContent().stream().map(ItemRequest::getId).toList()
         );
 
         Map<Long, List<ItemRequestAnswer>> answersByRequestId = items.stream()
@@ -70,20 +86,30 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                         )
                 ));
 
-        return requests.stream()
-                .map(req -> ItemRequestMapper.dtoToRequestOut(
-                        req, answersByRequestId.getOrDefault(req.getId(), List.of())
-                ))
-                .toList();
+        return requests.map(req -> ItemRequestMapper.dtoToRequestOut(
+                req, answersByRequestId.getOrDefault(req.getId(), List.of())
+        ));
     }
 
+    // Попадание в кэш запросов не берёт соединение с базой: транзакция открывается, только если она уже есть
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemRequestOutDto showRequestsById(Long requestId) {
-        ItemRequest request = itemRequestRepository.findById(requestId).orElseThrow(NotFoundException::new);
+        return requestViewCache.get(requestId, this::loadRequestView);
+    }
+
+    private ItemRequestOutDto loadRequestView(long requestId) {
+        ItemRequest request = itemRequestRepository.findDetailedById(requestId).orElseThrow(NotFoundException::new);
         List<ItemRequestAnswer> answers = itemRepository.findByRequestId(request.getId()).stream()
                 .map(ItemRequestMapper::itemToAnswer)
                 .toList();
 
         return ItemRequestMapper.dtoToRequestOut(request, answers);
     }
+
+    private static void checkPageSize(int size) {
+        if (size <= 0) {
+            throw new ValidateException("Неверные параметры пагинации");
+        }
+    }
 }
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.request.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeSubscriber;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.utils.ViewCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Собранные запросы с ответами на них (GET /requests/{requestId}) в памяти узла.
+ * Сам запрос не меняется; новый ответ и переименование вещи-ответа пишут событие запроса и вытесняют его сразу,
+ * а переименование автора приходит только через ленту изменений.
+ */
+@Component
+public class RequestViewCache implements ChangeSubscriber, MeterBinder {
+    private final ViewCache<ItemRequestOutDto> views;
+
+    public RequestViewCache(@Value("${shareit.request-views.max-size:10000}") long maxSize,
+                            @Value("${shareit.request-views.ttl:PT10M}") Duration ttl) {
+        views = new ViewCache<>(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync());
+    }
+
+    public ItemRequestOutDto get(long requestId, Function<Long, ItemRequestOutDto> loader) {
+        return views.get(requestId, loader);
+    }
+
+    public void evict(Long requestId) {
+        views.evict(List.of(requestId));
+    }
+
+    @Override
+    public void onChanges(List<OutboxEvent> events) {
+        views.evictNow(ids(events, Aggregate.REQUEST));
+        // Изменения пользователей редки, поэтому запросы их авторов ищутся перебором кэша
+        Set<Long> users = Set.copyOf(ids(events, Aggregate.USER));
+        if (!users.isEmpty()) {
+            views.evictIf(view -> users.contains(view.getRequester().getId()));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, views.cache(), "request-views");
+    }
+
+    private static List<Long> ids(List<OutboxEvent> events, Aggregate aggregate) {
+        return events.stream()
+                .filter(event -> event.getAggregate() == aggregate)
+                .map(OutboxEvent::getAggregateId)
+                .toList();
+    }
+}
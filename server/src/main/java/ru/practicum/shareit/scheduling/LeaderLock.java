@@ -0,0 +1,45 @@
+package ru.practicum.shareit.scheduling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Выбор узла для фоновой задачи через строку в scheduler_locks: узел, получивший аренду, выполняет задачу,
+ * остальные пропускают запуск. Аренда истекает сама, если узел упал, не освободив её.
+ */
+@Slf4j
+@Component
+public class LeaderLock {
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final String node;
+
+    @Autowired
+    public LeaderLock(SchedulerLockRepository schedulerLockRepository) {
+        this(schedulerLockRepository, UUID.randomUUID().toString());
+    }
+
+    LeaderLock(SchedulerLockRepository schedulerLockRepository, String node) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.node = node;
+    }
+
+    @Transactional
+    public boolean tryAcquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        boolean acquired = schedulerLockRepository.acquire(name, node, now, now.plus(lease)) == 1;
+        log.debug("Аренда {} узлом {}: {}", name, node, acquired ? "получена" : "занята");
+        return acquired;
+    }
+
+    @Transactional
+    public void release(String name) {
+        schedulerLockRepository.release(name, node, LocalDateTime.now(ZoneOffset.UTC));
+    }
+}
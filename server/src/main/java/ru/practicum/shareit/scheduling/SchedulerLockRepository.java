@@ -0,0 +1,21 @@
+package ru.practicum.shareit.scheduling;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+    // Аренду получает тот, кто первым обновит истёкшую строку, или её текущий владелец
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedBy = :node " +
+            "WHERE l.name = :name AND (l.lockedUntil <= :now OR l.lockedBy = :node)")
+    int acquire(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now,
+                @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :node")
+    int release(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now);
+}
@@ -2,9 +2,11 @@ package ru.practicum.shareit.user;
 
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.services.UserService;
+import ru.practicum.shareit.utils.KeysetPages;
 
 import java.util.List;
 
@@ -15,9 +17,10 @@ public class UserController {
     private UserService userService;
 
     @GetMapping
-    @ResponseStatus(HttpStatus.OK)
-    public List<UserDto> getUsers() {
-        return userService.getUsers();
+    public ResponseEntity<List<UserDto>> getUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "10") int size) {
+        return KeysetPages.toResponse(
+                userService.getUsers(KeysetPages.decode(cursor, KeysetPages.ID_KEYS), size));
     }
 
     @GetMapping("/{userId}")
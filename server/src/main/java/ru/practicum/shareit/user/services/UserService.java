@@ -1,11 +1,11 @@
 package ru.practicum.shareit.user.services;
 
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.user.dto.UserDto;
 
-import java.util.List;
-
 public interface UserService {
-    List<UserDto> getUsers();
+    Window<UserDto> getUsers(KeysetScrollPosition position, int size);
 
     UserDto getUserById(Long userId);
 
@@ -1,16 +1,22 @@
 package ru.practicum.shareit.user.services;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidateException;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.utils.KeysetPages;
 
-import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
@@ -18,17 +24,22 @@ import java.util.Optional;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private UserRepository userRepository;
+    private Outbox outbox;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, Outbox outbox) {
         this.userRepository = userRepository;
+        this.outbox = outbox;
     }
 
     @Override
-    public List<UserDto> getUsers() {
-        return userRepository.findAll().stream()
-                .map(UserMapper::toUserDto)
-                .toList();
+    public Window<UserDto> getUsers(KeysetScrollPosition position, int size) {
+        if (size <= 0) {
+            throw new ValidateException("Неверные параметры пагинации");
+        }
+        return KeysetPages.byId(
+                userRepository.findByIdGreaterThanOrderByIdAsc(KeysetPages.afterId(position), Limit.of(size + 1)),
+                size, User::getId).map(UserMapper::toUserDto);
     }
 
     @Override
@@ -44,7 +55,9 @@ public class UserServiceImpl implements UserService {
         } catch (Exception e) {
             throw new ValidateException("Ошибка в запросе");
         }
-        return UserMapper.toUserDto(userRepository.save(UserMapper.dtoToUser(user)));
+        User saved = userRepository.save(UserMapper.dtoToUser(user));
+        outbox.record(Aggregate.USER, saved.getId(), ChangeType.CREATED);
+        return UserMapper.toUserDto(saved);
     }
 
     @Override
@@ -58,13 +71,16 @@ public class UserServiceImpl implements UserService {
             checkUser(UserMapper.dtoToUser(user));
             oldUser.setEmail(user.getEmail());
         }
-        return UserMapper.toUserDto(userRepository.save(oldUser));
+        User saved = userRepository.save(oldUser);
+        outbox.record(Aggregate.USER, userId, ChangeType.UPDATED);
+        return UserMapper.toUserDto(saved);
     }
 
     @Override
     @Transactional
     public void deleteUser(Long userId) {
         userRepository.deleteById(userId);
+        outbox.record(Aggregate.USER, userId, ChangeType.DELETED);
     }
 
     public User checkUser(User user) {
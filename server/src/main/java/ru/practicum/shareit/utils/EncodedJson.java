@@ -0,0 +1,48 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Ответ, закодированный в JSON один раз: байты UTF-8 и неизменяемые заголовки Content-Type, Content-Length и ETag.
+ * Strong ETag - хэш самих байтов, поэтому одинаковый ответ получает одинаковый тег на любом узле и после перезапуска.
+ */
+public final class EncodedJson {
+    private final byte[] body;
+    private final HttpHeaders headers;
+
+    private EncodedJson(byte[] body) {
+        this.body = body;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length);
+        headers.setETag("\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    public static EncodedJson encode(ObjectMapper objectMapper, Object view) {
+        try {
+            return new EncodedJson(objectMapper.writeValueAsBytes(view));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать ответ", e);
+        }
+    }
+
+    public String etag() {
+        return headers.getETag();
+    }
+
+    public int length() {
+        return body.length;
+    }
+
+    // Заголовки только для чтения ответ не копирует; If-None-Match с тем же тегом Spring MVC сам превращает в 304
+    public ResponseEntity<byte[]> toResponse() {
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.utils;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exceptions.ValidateException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Постраничная выдача по ключу: позиция последней строки страницы кодируется в непрозрачный токен,
+ * который клиент возвращает в параметре cursor, а сервер отдаёт в заголовке {@link HttpHeaders#NEXT_PAGE_TOKEN}.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class KeysetPages {
+    /**
+     * Ключи выборок, упорядоченных по возрастанию id.
+     */
+    public static final Map<String, Class<?>> ID_KEYS = Map.of("id", Long.class);
+
+    private static final String VERSION = "1";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String INVALID_TOKEN = "Неверный токен продолжения";
+
+    /**
+     * Позиция из токена продолжения; токен должен содержать ровно ключи keys и значения их типов,
+     * иначе это токен другого списка или подделка.
+     */
+    public static KeysetScrollPosition decode(String token, Map<String, Class<?>> keys) {
+        if (token == null || token.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(";");
+            if (!VERSION.equals(parts[0])) {
+                throw new ValidateException(INVALID_TOKEN);
+            }
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = 1; i < parts.length; i++) {
+                String[] key = parts[i].split("=", 2);
+                Class<?> type = keys.get(key[0]);
+                Object value = decodeValue(key[1]);
+                if (type == null || !type.isInstance(value) || values.put(key[0], value) != null) {
+                    throw new ValidateException(INVALID_TOKEN);
+                }
+            }
+            if (values.size() != keys.size()) {
+                throw new ValidateException(INVALID_TOKEN);
+            }
+            return ScrollPosition.forward(values);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidateException(INVALID_TOKEN);
+        }
+    }
+
+    public static String encode(ScrollPosition position) {
+        if (!(position instanceof KeysetScrollPosition keyset)) {
+            throw new IllegalArgumentException("Поддерживаются только позиции по ключу");
+        }
+        StringJoiner joiner = new StringJoiner(";").add(VERSION);
+        keyset.getKeys().forEach((name, value) -> joiner.add(name + "=" + encodeValue(value)));
+        return ENCODER.encodeToString(joiner.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Id последней строки предыдущей страницы для выборок, упорядоченных по возрастанию id; 0 для первой страницы.
+     */
+    public static long afterId(KeysetScrollPosition position) {
+        return position.isInitial() ? 0L : key(position, "id", Long.class);
+    }
+
+    /**
+     * Значение ключа позиции; позиция без этого ключа или со значением другого типа - неверный токен.
+     */
+    public static <T> T key(KeysetScrollPosition position, String name, Class<T> type) {
+        Object value = position.getKeys().get(name);
+        if (!type.isInstance(value)) {
+            throw new ValidateException(INVALID_TOKEN);
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * Страница из строк, выбранных с запасом в одну строку: лишняя строка только сообщает, что дальше есть ещё.
+     */
+    public static <T> Window<T> byId(List<T> rows, int size, Function<T, Long> idOf) {
+        List<T> content = rows.size() > size ? rows.subList(0, size) : rows;
+        return Window.from(content, i -> ScrollPosition.forward(Map.of("id", idOf.apply(content.get(i)))),
+                rows.size() > size);
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(Window<T> window) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (window.hasNext() && !window.isEmpty()) {
+            response.header(HttpHeaders.NEXT_PAGE_TOKEN, encode(window.positionAt(window.size() - 1)));
+        }
+        return response.body(window.getContent());
+    }
+
+    private static String encodeValue(Object value) {
+        if (value instanceof Long id) {
+            return "L" + id;
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return "T" + dateTime;
+        }
+        throw new IllegalArgumentException("Неподдерживаемый тип ключа: " + value);
+    }
+
+    private static Object decodeValue(String value) {
+        return switch (value.charAt(0)) {
+            case 'L' -> Long.parseLong(value.substring(1));
+            case 'T' -> LocalDateTime.parse(value.substring(1));
+            default -> throw new IllegalArgumentException("Неподдерживаемый тип ключа: " + value);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package ru.practicum.shareit.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.outbox.Aggregate;
+
+/**
+ * Закодированные в JSON ответы для собранных карточек из кэшей узла (ItemViewCache, RequestViewCache).
+ * Запись ищется по ресурсу и id и годится, пока кэш карточек отдаёт тот же экземпляр карточки, из которого она
+ * закодирована: версия ответа - это сама карточка. Вытеснение карточки поэтому делает устаревшим и её ответ,
+ * а отдельно вытеснять ответы не нужно.
+ */
+@Component
+public class ResponseBodyCache implements MeterBinder {
+    private final ObjectMapper objectMapper;
+    private final Cache<Key, Encoded> bodies;
+
+    public ResponseBodyCache(ObjectMapper objectMapper,
+                             @Value("${shareit.response-bodies.max-size:10000}") long maxSize) {
+        this.objectMapper = objectMapper;
+        bodies = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public ResponseEntity<byte[]> respond(Aggregate resource, long id, Object view) {
+        return encode(resource, id, view).toResponse();
+    }
+
+    public EncodedJson encode(Aggregate resource, long id, Object view) {
+        Key key = new Key(resource, id);
+        Encoded cached = bodies.getIfPresent(key);
+        if (cached != null && cached.view() == view) {
+            return cached.json();
+        }
+        // Гонка двух версий одной карточки безопасна: чужая версия при следующем чтении просто закодируется заново
+        EncodedJson json = EncodedJson.encode(objectMapper, view);
+        bodies.put(key, new Encoded(view, json));
+        return json;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, bodies, "response-bodies");
+    }
+
+    private record Key(Aggregate resource, long id) {
+    }
+
+    private record Encoded(Object view, EncodedJson json) {
+    }
+}
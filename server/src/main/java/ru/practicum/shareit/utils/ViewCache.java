@@ -0,0 +1,89 @@
+package ru.practicum.shareit.utils;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Собранные ответы по id в памяти узла поверх асинхронного кэша Caffeine.
+ * <p>
+ * Ответ загружается в потоке запроса, а не внутри вычисления кэша: там держится synchronized, который закрепил бы
+ * виртуальный поток на время запросов к базе. Запрос, пришедший во время загрузки, ждёт её результата;
+ * вытеснение во время загрузки убирает её, и загруженное в кэш уже не попадёт.
+ */
+public final class ViewCache<V> {
+    private final AsyncCache<Long, V> views;
+
+    public ViewCache(AsyncCache<Long, V> views) {
+        this.views = views;
+    }
+
+    public V get(long id, Function<Long, V> loader) {
+        // Попадание не заводит будущего результата: его создаёт только промах
+        CompletableFuture<V> cached = views.getIfPresent(id);
+        if (cached != null) {
+            return join(cached);
+        }
+        CompletableFuture<V> loading = new CompletableFuture<>();
+        cached = views.asMap().putIfAbsent(id, loading);
+        if (cached != null) {
+            return join(cached);
+        }
+        try {
+            V view = loader.apply(id);
+            loading.complete(view);
+            return view;
+        } catch (RuntimeException | Error e) {
+            // Неудачная загрузка из кэша удаляется, ждавшие её запросы получают то же исключение
+            loading.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Вытесняет ответы сразу и ещё раз после завершения транзакции: между двумя вытеснениями параллельное
+     * чтение могло положить в кэш состояние до фиксации изменения.
+     */
+    public void evict(Collection<Long> ids) {
+        evictNow(ids);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictNow(ids);
+                }
+            });
+        }
+    }
+
+    public void evictNow(Collection<Long> ids) {
+        views.synchronous().invalidateAll(ids);
+    }
+
+    // Идущая загрузка ещё не показала, что в ней, поэтому вытесняется вместе с подходящими ответами
+    public void evictIf(Predicate<V> stale) {
+        views.asMap().values().removeIf(view -> !view.isDone() || view.isCompletedExceptionally()
+                || stale.test(view.join()));
+    }
+
+    public AsyncCache<Long, V> cache() {
+        return views;
+    }
+
+    private static <V> V join(CompletableFuture<V> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
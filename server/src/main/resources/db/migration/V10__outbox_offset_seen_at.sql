@@ -0,0 +1,3 @@
+-- Подписчики ленты именуются по узлам: позиция, которую узел давно не сдвигал, принадлежит остановленному узлу
+-- и не должна вечно удерживать очистку журнала
+ALTER TABLE outbox_offsets ADD COLUMN IF NOT EXISTS seen_at TIMESTAMP WITHOUT TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP;
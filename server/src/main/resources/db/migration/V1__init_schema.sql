@@ -7,14 +7,14 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-  id BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   description VARCHAR(512) NOT NULL,
   requester_id BIGINT,
   FOREIGN KEY (requester_id) REFERENCES users (id)
 );
 
 CREATE TABLE IF NOT EXISTS items (
-  id BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   name VARCHAR(255) NOT NULL,
   description VARCHAR(512) NOT NULL,
   is_available boolean,
@@ -25,7 +25,7 @@ CREATE TABLE IF NOT EXISTS items (
 );
 
 CREATE TABLE IF NOT EXISTS bookings (
-  id BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   start_date TIMESTAMP WITHOUT TIME ZONE,
   end_date TIMESTAMP WITHOUT TIME ZONE,
   item_id BIGINT,
@@ -36,10 +36,10 @@ CREATE TABLE IF NOT EXISTS bookings (
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-  id BIGINT PRIMARY KEY GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
   text VARCHAR(512) NOT NULL,
   item_id BIGINT,
   author_id BIGINT,
   FOREIGN KEY (item_id) REFERENCES items (id),
   FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,12 @@
+-- Состояния бронирований - диапазоны по start_date внутри пользователя или вещи и статуса.
+-- end_date в конце индекса позволяет проверить условия CURRENT и PAST, не читая строку таблицы
+DROP INDEX IF EXISTS ix_bookings_booker_start;
+DROP INDEX IF EXISTS ix_bookings_booker_status_start;
+DROP INDEX IF EXISTS ix_bookings_booker_end;
+DROP INDEX IF EXISTS ix_bookings_item_start;
+DROP INDEX IF EXISTS ix_bookings_item_status_start;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start_end ON bookings (booker_id, start_date DESC, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start_end ON bookings (booker_id, status, start_date DESC, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start_end ON bookings (item_id, start_date DESC, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start_end ON bookings (item_id, status, start_date DESC, end_date);
@@ -0,0 +1,12 @@
+-- Аренда фоновых задач: задачу выполняет узел, который последним продлил строку
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+  name VARCHAR(64) NOT NULL PRIMARY KEY,
+  locked_until TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  locked_by VARCHAR(255)
+);
+
+INSERT INTO scheduler_locks (name, locked_until) VALUES ('booking-lifecycle', TIMESTAMP '1970-01-01 00:00:00');
+
+-- Выборки обработчика жизненного цикла: ожидающие с прошедшим началом, подтверждённые с прошедшим концом
+CREATE INDEX IF NOT EXISTS ix_bookings_status_start ON bookings (status, start_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end ON bookings (status, end_date);
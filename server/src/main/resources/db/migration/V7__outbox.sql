@@ -0,0 +1,14 @@
+-- Журнал изменений сущностей: строка пишется в той же транзакции, что и само изменение
+CREATE TABLE IF NOT EXISTS outbox_events (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL PRIMARY KEY,
+  aggregate VARCHAR(32) NOT NULL,
+  aggregate_id BIGINT NOT NULL,
+  change_type VARCHAR(32) NOT NULL,
+  created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+-- Позиция подписчика ленты изменений: последний доставленный номер события
+CREATE TABLE IF NOT EXISTS outbox_offsets (
+  consumer VARCHAR(64) NOT NULL PRIMARY KEY,
+  position BIGINT NOT NULL
+);
@@ -0,0 +1,17 @@
+-- Архив давно закончившихся бронирований в конечных статусах. Строка переносится со своим id,
+-- списки бронирований читают архив только для состояний, в которые такие бронирования попадают
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT NOT NULL PRIMARY KEY,
+  start_date TIMESTAMP WITHOUT TIME ZONE,
+  end_date TIMESTAMP WITHOUT TIME ZONE,
+  item_id BIGINT,
+  booker_id BIGINT,
+  status VARCHAR(64) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  archived_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  FOREIGN KEY (item_id) REFERENCES items (id),
+  FOREIGN KEY (booker_id) REFERENCES users (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start_end ON bookings_archive (booker_id, start_date DESC, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_start_end ON bookings_archive (item_id, start_date DESC, end_date);
@@ -0,0 +1,12 @@
+-- Вещь, недоступная из-за подтверждённого бронирования, отличается от снятой владельцем:
+-- фоновый процесс возвращает в аренду только первую
+ALTER TABLE items ADD COLUMN IF NOT EXISTS blocked_by_booking BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Недоступные вещи с идущим или будущим подтверждённым бронированием считаются занятыми им
+UPDATE items i
+SET blocked_by_booking = TRUE
+WHERE i.is_available = FALSE
+  AND EXISTS (SELECT 1 FROM bookings b
+              WHERE b.item_id = i.id
+                AND b.status = 'APPROVED'
+                AND b.end_date > CURRENT_TIMESTAMP);
@@ -0,0 +1,307 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.States;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.CommentRepository;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repositories.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repositories.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.booking.repositories.BookingSpecifications.*;
+
+/**
+ * Запросы репозиториев, перехваченные у Hibernate, прогоняются через EXPLAIN H2:
+ * ни одна таблица не должна читаться полным сканированием. H2 сам индексирует столбцы внешних ключей,
+ * в PostgreSQL те же запросы опираются на индексы из миграций V2 и V4. Запросы состояний бронирований
+ * проверяются строже - план должен назвать индекс V4. Для этого собственные индексы H2 на внешних ключах
+ * бронирований удаляются вместе с ограничениями, а статусу задаётся низкая селективность, как в статистике PostgreSQL:
+ * без неё H2 считает равенство по статусу таким же избирательным, как по пользователю.
+ */
+@DataJpaTest
+@Import(BookingViewRepository.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.RepositoryIndexUsageTest$SqlRecorder")
+public class RepositoryIndexUsageTest {
+    private static final int USERS = 20;
+    private static final int ITEMS_PER_USER = 5;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private BookingViewRepository bookingViewRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+    private Item item;
+    private ItemRequest request;
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        prepareBookingsTable();
+        List<User> users = new ArrayList<>();
+        for (int u = 0; u < USERS; u++) {
+            User next = new User();
+            next.setName("user" + u);
+            next.setEmail("user" + u + "@mail.ru");
+            users.add(em.persist(next));
+        }
+        for (int u = 0; u < USERS; u++) {
+            User owner = users.get(u);
+            ItemRequest nextRequest = new ItemRequest();
+            nextRequest.setDescription("Запрос " + u);
+            nextRequest.setRequester(owner);
+            em.persist(nextRequest);
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                Item nextItem = new Item();
+                nextItem.setName("Вещь " + u + "-" + i);
+                nextItem.setDescription("Описание");
+                nextItem.setAvailable(true);
+                nextItem.setOwner(owner);
+                nextItem.setRequest(nextRequest);
+                em.persist(nextItem);
+                for (int b = 0; b < 4; b++) {
+                    Booking booking = new Booking();
+                    booking.setItem(nextItem);
+                    booking.setBooker(users.get((u + b + 1) % USERS));
+                    booking.setStart(now.plusDays(b - 2));
+                    booking.setEnd(now.plusDays(b - 1));
+                    booking.setStatus(b % 2 == 0 ? Status.APPROVED : Status.WAITING);
+                    em.persist(booking);
+                }
+                Comment comment = new Comment();
+                comment.setText("Комментарий");
+                comment.setItem(nextItem);
+                comment.setAuthor(users.get((u + 1) % USERS));
+                em.persist(comment);
+                item = nextItem;
+            }
+            request = nextRequest;
+        }
+        user = users.getFirst();
+        em.flush();
+        em.clear();
+        SqlRecorder.clear();
+    }
+
+    @Test
+    void bookingStateQueriesUseStateIndexes() {
+        Specification<Booking> booker = byBooker(user.getId());
+        Specification<Booking> owner = byOwner(user.getId());
+        for (States state : States.values()) {
+            scroll(Booking.class, booker.and(inState(state, now)));
+            assertRecordedQueriesUse(stateIndex("booker", state));
+            scroll(Booking.class, owner.and(inState(state, now)));
+            assertRecordedQueriesUse(stateIndex("item", state));
+        }
+    }
+
+    @Test
+    void bookingQueriesUseIndexes() {
+        bookingRepository.findByBookerIdAndItemId(user.getId(), item.getId());
+        bookingRepository.findLastBooking(item.getId(), now, Limit.of(1));
+        bookingRepository.findNextBooking(item.getId(), now, Limit.of(1));
+        bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+        bookingRepository.findPeriodsBetween(item.getId(), Status.BLOCKING, now, now.plusDays(7));
+        bookingRepository.findIdsStartedBefore(Status.WAITING, now, Limit.of(10));
+        bookingRepository.findIdsEndedBefore(Status.APPROVED, now, Limit.of(10));
+        bookingRepository.findAllForReview(List.of(1L, 2L, 3L));
+        bookingRepository.findIdsEndedBefore(Status.FINAL, now, Limit.of(10));
+
+        assertRecordedQueriesUseIndexes();
+    }
+
+    @Test
+    void archivedBookingQueriesUseIndexes() {
+        Specification<ArchivedBooking> booker = byBooker(user.getId());
+        Specification<ArchivedBooking> owner = byOwner(user.getId());
+        for (States state : List.of(States.ALL, States.PAST, States.REJECTED)) {
+            scroll(ArchivedBooking.class, booker.and(inState(state, now)));
+            scroll(ArchivedBooking.class, owner.and(inState(state, now)));
+        }
+        archivedBookingRepository.existsByBookerIdAndItemIdAndStatus(user.getId(), item.getId(), Status.FINISHED);
+
+        assertRecordedQueriesUseIndexes();
+    }
+
+    @Test
+    void itemQueriesUseIndexes() {
+        itemRepository.existsByOwnerId(user.getId());
+        itemRepository.findViewById(item.getId());
+        itemRepository.findViewsByOwnerId(user.getId(), 0L, Limit.of(10));
+        itemRepository.findByRequestId(request.getId());
+        itemRepository.findByRequestIds(List.of(request.getId()));
+        itemRepository.findAvailableById(item.getId());
+
+        assertRecordedQueriesUseIndexes();
+    }
+
+    @Test
+    void commentAndRequestQueriesUseIndexes() {
+        commentRepository.findViewsByItemId(item.getId());
+        commentRepository.findViewsByItemIds(List.of(item.getId()));
+        itemRequestRepository.findByRequesterIdAndIdGreaterThanOrderByIdAsc(user.getId(), 0L, Limit.of(10));
+        itemRequestRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10));
+        userRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(10));
+
+        assertRecordedQueriesUseIndexes();
+    }
+
+    // Вторая страница: позиция с ключами сортировки добавляет к условию сравнение по ним
+    private <T> void scroll(Class<T> entity, Specification<T> spec) {
+        Window<BookingView> first = bookingViewRepository.scroll(entity, spec, ScrollPosition.keyset(), 2);
+        if (first.isEmpty()) {
+            return;
+        }
+        bookingViewRepository.scroll(entity, spec, (KeysetScrollPosition) first.positionAt(first.size() - 1), 2);
+    }
+
+    // WAITING и REJECTED ограничены только статусом, остальные состояния - диапазоном начала и конца
+    private static String stateIndex(String column, States state) {
+        return switch (state) {
+            case ALL, CURRENT, PAST, FUTURE -> "ix_bookings_" + column + "_start_end";
+            case WAITING, REJECTED -> "ix_bookings_" + column + "_status_start_end";
+        };
+    }
+
+    private void assertRecordedQueriesUse(String index) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (String sql : SqlRecorder.statements()) {
+                String plan = explain(connection, sql);
+                assertTrue(plan.contains("PUBLIC." + index.toUpperCase() + ":"),
+                        () -> "План не использует " + index + ":\n" + plan);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        SqlRecorder.clear();
+    }
+
+    // Отдельным соединением: DDL в H2 завершает текущую транзакцию
+    private void prepareBookingsTable() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            List<String> constraints = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("SELECT constraint_name FROM information_schema.table_constraints "
+                    + "WHERE table_name = 'BOOKINGS' AND constraint_type = 'FOREIGN KEY'")) {
+                while (rs.next()) {
+                    constraints.add(rs.getString(1));
+                }
+            }
+            for (String constraint : constraints) {
+                statement.execute("ALTER TABLE bookings DROP CONSTRAINT \"" + constraint + "\"");
+            }
+            statement.execute("ALTER TABLE bookings ALTER COLUMN status SELECTIVITY 1");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось подготовить таблицу бронирований", e);
+        }
+    }
+
+    private void assertRecordedQueriesUseIndexes() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (String sql : SqlRecorder.statements()) {
+                String plan = explain(connection, sql);
+                assertFalse(plan.contains("tableScan"), () -> "Полное сканирование таблицы:\n" + plan);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private static String explain(Connection connection, String sql) {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось получить план запроса: " + sql, e);
+        }
+    }
+
+    public static class SqlRecorder implements StatementInspector {
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public synchronized String inspect(String sql) {
+            if (sql.trim().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static synchronized List<String> statements() {
+            return List.copyOf(STATEMENTS);
+        }
+
+        static synchronized void clear() {
+            STATEMENTS.clear();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.CommentMapper;
+import ru.practicum.shareit.item.dto.ItemGetDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Размер и время сериализации ответов прежней формы (сущности вещи и пользователя внутри бронирования,
+ * комментарии-сущности и Booking.toString() в карточке вещи) и компактной формы из DTO.
+ */
+@Slf4j
+@JsonTest
+public class ResponsePayloadBenchmarkTest {
+    private static final int PAGE_SIZE = 10;
+    private static final int COMMENTS = 5;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 10_000;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Test
+    void bookingPageIsSmallerAndFaster() throws JsonProcessingException {
+        List<Booking> bookings = new ArrayList<>();
+        for (long i = 1; i <= PAGE_SIZE; i++) {
+            bookings.add(booking(i));
+        }
+        List<LegacyBookingOutDto> legacy = bookings.stream()
+                .map(b -> new LegacyBookingOutDto(b.getId(), b.getStart().toString(), b.getEnd().toString(),
+                        b.getItem(), b.getBooker(), b.getStatus()))
+                .toList();
+        List<BookingOutDto> compact = bookings.stream().map(BookingMapper::toBookingDto).toList();
+
+        compare("Страница бронирований", legacy, compact);
+    }
+
+    @Test
+    void itemCardIsSmallerAndFaster() throws JsonProcessingException {
+        Booking last = booking(1L);
+        Booking next = booking(2L);
+        List<Comment> comments = new ArrayList<>();
+        for (long i = 1; i <= COMMENTS; i++) {
+            Comment comment = new Comment();
+            comment.setId(i);
+            comment.setText("Отличная дрель, сверлит бетон без усилий " + i);
+            comment.setItem(last.getItem());
+            comment.setAuthor(user(10 + i));
+            comments.add(comment);
+        }
+        Item item = last.getItem();
+        LegacyItemGetDto legacy = new LegacyItemGetDto(item.getId(), item.getName(), item.getDescription(),
+                item.getAvailable(), item.getRequest().getId(), last.toString(), next.toString(), comments);
+        ItemGetDto compact = new ItemGetDto(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequest().getId(), shortDto(last), shortDto(next),
+                comments.stream().map(CommentMapper::toOutDto).toList());
+
+        compare("Карточка вещи", legacy, compact);
+    }
+
+    private void compare(String name, Object legacy, Object compact) throws JsonProcessingException {
+        int legacyBytes = mapper.writeValueAsBytes(legacy).length;
+        int compactBytes = mapper.writeValueAsBytes(compact).length;
+        double legacyMicros = measure(legacy);
+        double compactMicros = measure(compact);
+        log.info("{}: прежняя форма {} байт, {} мкс; компактная {} байт, {} мкс", name,
+                legacyBytes, String.format("%.1f", legacyMicros), compactBytes, String.format("%.1f", compactMicros));
+
+        assertTrue(compactBytes < legacyBytes, "Компактный ответ не меньше прежнего");
+    }
+
+    private double measure(Object value) throws JsonProcessingException {
+        for (int i = 0; i < WARMUP; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        long began = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.writeValueAsBytes(value);
+        }
+        return (System.nanoTime() - began) / 1e3 / ITERATIONS;
+    }
+
+    private static Booking booking(long id) {
+        User requester = user(100 + id);
+        ItemRequest request = new ItemRequest();
+        request.setId(id);
+        request.setDescription("Нужна ударная дрель на выходные");
+        request.setRequester(requester);
+
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Дрель " + id);
+        item.setDescription("Ударная дрель с набором свёрл по бетону и металлу");
+        item.setAvailable(true);
+        item.setOwner(user(200 + id));
+        item.setRequest(request);
+        item.setVersion(3L);
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(id);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(start.plusDays(2));
+        booking.setItem(item);
+        booking.setBooker(user(300 + id));
+        booking.setStatus(Status.APPROVED);
+        return booking;
+    }
+
+    private static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@mail.ru");
+        return user;
+    }
+
+    private static BookingShortDto shortDto(Booking booking) {
+        return new BookingShortDto(booking.getId(), booking.getItem().getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd());
+    }
+
+    // Прежние формы ответов: сущности целиком
+    @Getter
+    @AllArgsConstructor
+    private static class LegacyBookingOutDto {
+        private Long id;
+        private String start;
+        private String end;
+        private Item item;
+        private User booker;
+        private Status status;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class LegacyItemGetDto {
+        private Long id;
+        private String name;
+        private String description;
+        private Boolean available;
+        private Long request;
+        private String lastBooking;
+        private String nextBooking;
+        private List<Comment> comments;
+    }
+}
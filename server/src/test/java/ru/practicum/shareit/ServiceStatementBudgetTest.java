@@ -0,0 +1,290 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.booking.services.BookingConflictIndex;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
+import ru.practicum.shareit.booking.services.BookingService;
+import ru.practicum.shareit.booking.services.BookingServiceImpl;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemService;
+import ru.practicum.shareit.item.services.ItemServiceImpl;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.services.ItemRequestService;
+import ru.practicum.shareit.request.services.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.services.RequestViewCache;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.services.UserService;
+import ru.practicum.shareit.user.services.UserServiceImpl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static ru.practicum.shareit.TestEntities.item;
+import static ru.practicum.shareit.TestEntities.user;
+
+/**
+ * Бюджеты запросов сервисов: связи сущностей ленивые, и каждый сценарий выбирает нужное своим запросом.
+ * Лишняя ленивая загрузка или N+1 выводит тест за бюджет.
+ */
+@DataJpaTest
+@Import({BookingServiceImpl.class, BookingViewRepository.class, ItemServiceImpl.class, ItemRequestServiceImpl.class,
+        ItemViewCache.class, RequestViewCache.class, UserServiceImpl.class, Outbox.class})
+public class ServiceStatementBudgetTest {
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserService userService;
+
+    @MockBean
+    private BookingConflictIndex bookingConflictIndex;
+
+    @MockBean
+    private BookingEventBroker bookingEventBroker;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private User booker;
+    private User renter;
+    private ItemRequest request;
+    private Item item;
+    private Booking past;
+    private Booking waiting;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(user("owner"));
+        booker = em.persist(user("booker"));
+        renter = em.persist(user("renter"));
+        User requester = em.persist(user("requester"));
+
+        request = new ItemRequest();
+        request.setDescription("Нужна дрель");
+        request.setRequester(requester);
+        em.persist(request);
+
+        item = item(owner);
+        item.setRequest(request);
+        em.persist(item);
+
+        LocalDateTime now = LocalDateTime.now();
+        past = booking(renter, Status.APPROVED, now.minusDays(10));
+        for (int i = 1; i < BOOKINGS; i++) {
+            booking(booker, Status.APPROVED, now.plusDays(10L * i));
+        }
+        waiting = booking(booker, Status.WAITING, now.plusDays(100));
+
+        Comment comment = new Comment();
+        comment.setText("Отличная дрель");
+        comment.setItem(item);
+        comment.setAuthor(renter);
+        em.persist(comment);
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @StatementBudget(1)
+    void getBookingById() {
+        BookingOutDto booking = bookingService.getBookingById(owner.getId(), past.getId());
+
+        assertEquals(item.getName(), booking.getItem().name());
+        assertEquals(renter.getName(), booking.getBooker().name());
+    }
+
+    // Страница текущей таблицы и страница архива
+    @Test
+    @StatementBudget(2)
+    void foundBookingsByState() {
+        List<BookingOutDto> bookings = bookingService.foundBookingsByState(booker.getId(), Optional.of("ALL"),
+                ScrollPosition.keyset(), BOOKINGS * 2).getContent();
+
+        assertEquals(BOOKINGS, bookings.size());
+    }
+
+    // Проверка, что у пользователя есть вещи, и страницы обеих таблиц
+    @Test
+    @StatementBudget(3)
+    void foundUsersBookingsByState() {
+        List<BookingOutDto> bookings = bookingService.foundUsersBookingsByState(owner.getId(), Optional.of("ALL"),
+                ScrollPosition.keyset(), BOOKINGS * 2).getContent();
+
+        assertEquals(BOOKINGS + 1, bookings.size());
+    }
+
+    // Вещь, арендатор, вставка бронирования и события журнала
+    @Test
+    @StatementBudget(4)
+    void createBooking() {
+        LocalDateTime start = LocalDate.now().plusDays(200).atStartOfDay();
+        BookingInDto dto = new BookingInDto();
+        dto.setItemId(item.getId());
+        dto.setStart(start.toString());
+        dto.setEnd(start.plusDays(1).toString());
+
+        BookingOutDto booking = bookingService.createBooking(booker.getId(), dto);
+
+        assertEquals(item.getName(), booking.getItem().name());
+    }
+
+    // Бронирование с вещью и арендатором, решение, недоступность вещи и два события журнала
+    @Test
+    @StatementBudget(5)
+    void reviewBooking() {
+        BookingOutDto booking = bookingService.reviewBooking(owner.getId(), waiting.getId(), true);
+
+        assertEquals(Status.APPROVED, booking.getStatus());
+    }
+
+    // Вещь, текущее и следующее бронирования, комментарии
+    @Test
+    @StatementBudget(4)
+    void getItemById() {
+        assertEquals(1, itemService.getItemById(item.getId()).getComments().size());
+    }
+
+    // Повторный просмотр карточки отдаётся из кэша
+    @Test
+    @StatementBudget(4)
+    void getItemByIdTwice() {
+        itemService.getItemById(item.getId());
+
+        assertEquals(item.getName(), itemService.getItemById(item.getId()).getName());
+    }
+
+    @Test
+    @StatementBudget(3)
+    void getItems() {
+        assertEquals(1, itemService.getItems(owner.getId(), ScrollPosition.keyset(), 10).getContent().size());
+    }
+
+    // Владелец, вставка вещи и события журнала: вещи и запроса, на который она отвечает
+    @Test
+    @StatementBudget(4)
+    void createItem() {
+        itemService.createItem(owner.getId(), new ItemDto(null, "Перфоратор", "Мощный", true, request.getId()));
+        em.flush();
+    }
+
+    // Вещь без владельца: его id есть во внешнем ключе; переименованная вещь отвечает на запрос - ещё событие запроса
+    @Test
+    @StatementBudget(4)
+    void updateItem() {
+        ItemDto dto = new ItemDto();
+        dto.setName("Дрель аккумуляторная");
+
+        assertEquals(dto.getName(), itemService.updateItem(owner.getId(), item.getId(), dto).getName());
+    }
+
+    @Test
+    @StatementBudget(5)
+    void createComment() {
+        CommentDto dto = new CommentDto();
+        dto.setText("Снова брал, снова доволен");
+
+        assertEquals(renter.getName(), itemService.createComment(renter.getId(), item.getId(), dto).getAuthorName());
+    }
+
+    @Test
+    @StatementBudget(3)
+    void createItemRequest() {
+        ItemRequestDto dto = new ItemRequestDto();
+        dto.setDescription("Нужна лестница");
+
+        assertEquals(booker.getName(), itemRequestService.createItemRequest(booker.getId(), dto).getRequester().getName());
+    }
+
+    @Test
+    @StatementBudget(1)
+    void showAllRequests() {
+        List<ItemRequestDto> requests = itemRequestService.showAllRequests(ScrollPosition.keyset(), 10).getContent();
+
+        assertEquals("requester", requests.getFirst().getRequester().getName());
+    }
+
+    // Автор, его запросы и вещи-ответы на все запросы страницы
+    @Test
+    @StatementBudget(3)
+    void showRequests() {
+        List<ItemRequestOutDto> requests = itemRequestService.showRequests(request.getRequester().getId(),
+                ScrollPosition.keyset(), 10).getContent();
+
+        assertEquals(1, requests.getFirst().getItems().size());
+        assertEquals(owner.getId(), requests.getFirst().getItems().getFirst().getOwnerId());
+    }
+
+    @Test
+    @StatementBudget(2)
+    void showRequestsById() {
+        ItemRequestOutDto found = itemRequestService.showRequestsById(request.getId());
+
+        assertEquals("requester", found.getRequester().getName());
+        assertEquals(1, found.getItems().size());
+    }
+
+    // Повторный просмотр запроса отдаётся из кэша
+    @Test
+    @StatementBudget(2)
+    void showRequestsByIdTwice() {
+        itemRequestService.showRequestsById(request.getId());
+
+        assertEquals(1, itemRequestService.showRequestsById(request.getId()).getItems().size());
+    }
+
+    @Test
+    @StatementBudget(1)
+    void getUsers() {
+        assertEquals(4, userService.getUsers(ScrollPosition.keyset(), 10).getContent().size());
+    }
+
+    // Проверка email, вставка и событие журнала
+    @Test
+    @StatementBudget(3)
+    void createUser() {
+        userService.createUser(new UserDto(null, "new@mail.ru", "new"));
+        em.flush();
+    }
+
+    // Бронирования вещи item - суточные
+    private Booking booking(User user, Status status, LocalDateTime start) {
+        return em.persist(TestEntities.booking(item, user, status, start, start.plusDays(1)));
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Наибольшее число SQL-запросов, которое может выполнить тест. Считаются запросы после @BeforeEach,
+ * поэтому подготовка данных в бюджет не входит; изменения, которые сервис не сбросил сам,
+ * тест сбрасывает явно, чтобы они тоже попали в счёт.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface StatementBudget {
+    long value();
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+
+/**
+ * Проверяет {@link StatementBudget} по статистике Hibernate из контекста Spring теста:
+ * статистика включается и обнуляется перед самим тестом, после него число подготовленных запросов
+ * сравнивается с бюджетом. Превышение - ошибка теста со списком выполненных запросов HQL.
+ */
+public class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        Statistics statistics = statistics(context);
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        long budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), StatementBudget.class)
+                .orElseThrow()
+                .value();
+        Statistics statistics = statistics(context);
+        long executed = statistics.getPrepareStatementCount();
+        if (executed > budget) {
+            throw new AssertionFailedError(String.format("%s: %d запросов при бюджете %d, HQL: %s",
+                    context.getDisplayName(), executed, budget, Arrays.toString(statistics.getQueries())));
+        }
+    }
+
+    private static Statistics statistics(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+}
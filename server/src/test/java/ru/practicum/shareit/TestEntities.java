@@ -0,0 +1,43 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Сущности с типовыми полями для тестов на базе. Сущности возвращаются несохранёнными: тест сохраняет их сам,
+ * через TestEntityManager или репозиторий, и дописывает нужные ему поля.
+ */
+public final class TestEntities {
+    private TestEntities() {
+    }
+
+    public static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@mail.ru");
+        return user;
+    }
+
+    public static Item item(User owner) {
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    public static Booking booking(Item item, User booker, Status status, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+}
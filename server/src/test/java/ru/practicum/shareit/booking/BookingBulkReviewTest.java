@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.TestEntities;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingReviewResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.booking.services.BookingConflictIndex;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
+import ru.practicum.shareit.booking.services.BookingService;
+import ru.practicum.shareit.booking.services.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static ru.practicum.shareit.TestEntities.item;
+import static ru.practicum.shareit.TestEntities.user;
+
+@DataJpaTest
+@Import({BookingServiceImpl.class, BookingViewRepository.class, ItemViewCache.class, Outbox.class})
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookingBulkReviewTest {
+    // Бронирования с вещами, блокировка ожидающих, подтверждения, отказы, недоступность вещей
+    // и три вставки в журнал изменений - при любом размере пакета
+    private static final long STATEMENT_BUDGET = 8;
+    private static final int ITEMS = 3;
+    private static final int BOOKINGS_PER_ITEM = 10;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @MockBean
+    private BookingConflictIndex bookingConflictIndex;
+
+    @MockBean
+    private BookingEventBroker bookingEventBroker;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> waiting = new ArrayList<>();
+    private Booking approved;
+    private Booking foreign;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(user("owner"));
+        User other = em.persist(user("other"));
+        User booker = em.persist(user("booker"));
+
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Нужна дрель");
+        request.setRequester(other);
+        em.persist(request);
+
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+        for (int n = 0; n < ITEMS; n++) {
+            Item item = em.persist(item(owner));
+            item.setRequest(request);
+            items.add(item);
+            for (int p = 0; p < BOOKINGS_PER_ITEM; p++) {
+                waiting.add(booking(item, booker, Status.WAITING, day.plusHours(2L * p)));
+            }
+        }
+        approved = booking(items.getFirst(), booker, Status.APPROVED, day.minusDays(1));
+        foreign = booking(em.persist(item(other)), booker, Status.WAITING, day);
+
+        em.flush();
+        em.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void reviewBookingsFitsStatementBudget() {
+        List<BookingReviewDto> reviews = new ArrayList<>();
+        for (int i = 0; i < waiting.size(); i++) {
+            // Вещь 0 только отклоняется, остальные получают и подтверждения, и отказы
+            reviews.add(new BookingReviewDto(waiting.get(i).getId(), i >= BOOKINGS_PER_ITEM && i % 2 == 0));
+        }
+
+        List<BookingReviewResultDto> results = bookingService.reviewBookings(owner.getId(), reviews);
+
+        assertEquals(STATEMENT_BUDGET, statistics().getPrepareStatementCount());
+        assertEquals(reviews.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            BookingReviewDto review = reviews.get(i);
+            BookingReviewResultDto result = results.get(i);
+            Status expected = review.getApproved() ? Status.APPROVED : Status.REJECTED;
+            assertEquals(review.getBookingId(), result.getBookingId());
+            assertEquals(ReviewOutcome.valueOf(expected.name()), result.getOutcome());
+            assertEquals(expected, result.getBooking().getStatus());
+            assertEquals(expected, em.find(Booking.class, review.getBookingId()).getStatus());
+        }
+        assertTrue(em.find(Item.class, items.get(0).getId()).getAvailable());
+        assertFalse(em.find(Item.class, items.get(1).getId()).getAvailable());
+        assertFalse(em.find(Item.class, items.get(2).getId()).getAvailable());
+        assertTrue(em.find(Item.class, items.get(1).getId()).isBlockedByBooking());
+        List<OutboxEvent> changes = em.getEntityManager()
+                .createQuery("SELECT e FROM OutboxEvent e", OutboxEvent.class).getResultList();
+        assertEquals(reviews.size(), changes.stream().filter(e -> e.getAggregate() == Aggregate.BOOKING).count());
+        assertEquals(2, changes.stream().filter(e -> e.getAggregate() == Aggregate.ITEM).count());
+    }
+
+    @Test
+    void reviewBookingsReportsOutcomePerBooking() {
+        Booking overlapping = waiting.get(1);
+        doThrow(new ConflictException("Вещь уже забронирована"))
+                .when(bookingConflictIndex).confirm(argThat(b -> b.getId().equals(overlapping.getId())));
+        List<BookingReviewDto> reviews = List.of(
+                new BookingReviewDto(waiting.get(0).getId(), true),
+                new BookingReviewDto(overlapping.getId(), true),
+                new BookingReviewDto(approved.getId(), false),
+                new BookingReviewDto(foreign.getId(), true),
+                new BookingReviewDto(-1L, true),
+                new BookingReviewDto(waiting.get(2).getId(), false));
+
+        List<ReviewOutcome> outcomes = bookingService.reviewBookings(owner.getId(), reviews).stream()
+                .map(BookingReviewResultDto::getOutcome)
+                .toList();
+
+        assertEquals(List.of(ReviewOutcome.APPROVED, ReviewOutcome.OVERLAP, ReviewOutcome.ALREADY_REVIEWED,
+                ReviewOutcome.NOT_OWNER, ReviewOutcome.NOT_FOUND, ReviewOutcome.REJECTED), outcomes);
+        assertEquals(Status.WAITING, em.find(Booking.class, overlapping.getId()).getStatus());
+        assertEquals(Status.APPROVED, em.find(Booking.class, approved.getId()).getStatus());
+        assertEquals(Status.WAITING, em.find(Booking.class, foreign.getId()).getStatus());
+        assertNull(em.find(Booking.class, -1L));
+    }
+
+    @Test
+    void reviewBookingsKeepsBatchWhenSingleReviewWinsRace() {
+        Booking raced = waiting.get(1);
+        // Пока пакет проверял пересечения, бронирование отклонили одиночным PATCH
+        doAnswer(invocation -> {
+            em.getEntityManager().createQuery("UPDATE Booking b SET b.status = :status WHERE b.id = :id")
+                    .setParameter("status", Status.REJECTED)
+                    .setParameter("id", raced.getId())
+                    .executeUpdate();
+            return null;
+        }).when(bookingConflictIndex).confirm(argThat(b -> b.getId().equals(raced.getId())));
+        List<BookingReviewDto> reviews = List.of(
+                new BookingReviewDto(waiting.get(0).getId(), true),
+                new BookingReviewDto(raced.getId(), true),
+                new BookingReviewDto(waiting.get(2).getId(), false));
+
+        List<BookingReviewResultDto> results = bookingService.reviewBookings(owner.getId(), reviews);
+
+        assertEquals(List.of(ReviewOutcome.APPROVED, ReviewOutcome.ALREADY_REVIEWED, ReviewOutcome.REJECTED),
+                results.stream().map(BookingReviewResultDto::getOutcome).toList());
+        assertNull(results.get(1).getBooking());
+        assertEquals(Status.APPROVED, em.find(Booking.class, waiting.get(0).getId()).getStatus());
+        assertEquals(Status.REJECTED, em.find(Booking.class, raced.getId()).getStatus());
+        assertEquals(Status.REJECTED, em.find(Booking.class, waiting.get(2).getId()).getStatus());
+        assertFalse(em.find(Item.class, items.getFirst().getId()).getAvailable());
+    }
+
+    // Бронирования пакета - двухчасовые
+    private Booking booking(Item item, User booker, Status status, LocalDateTime start) {
+        return em.persist(TestEntities.booking(item, booker, status, start, start.plusHours(2)));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
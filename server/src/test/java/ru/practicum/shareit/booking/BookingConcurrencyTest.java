@@ -0,0 +1,189 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingInDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.services.BookingService;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repositories.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static ru.practicum.shareit.TestEntities.item;
+import static ru.practicum.shareit.TestEntities.user;
+
+/**
+ * Сотни одновременных созданий и подтверждений бронирований на H2: каждое решение владельца
+ * применяется ровно один раз, а подтверждённые периоды одной вещи не пересекаются.
+ */
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingConcurrencyTest {
+    private static final int ITEMS = 10;
+    // Каждый период запрашивают дважды: одно из двух созданий должно получить конфликт
+    private static final int PERIODS_PER_ITEM = 10;
+    // Каждое бронирование подтверждают из нескольких вкладок одновременно
+    private static final int TABS = 3;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void parallelCreationsAndApprovalsKeepInvariants() throws Exception {
+        String run = Long.toString(System.nanoTime());
+        User owner = userRepository.save(user("owner" + run));
+        User booker = userRepository.save(user("booker" + run));
+        List<Item> items = new ArrayList<>();
+        for (int n = 0; n < ITEMS; n++) {
+            Item item = item(owner);
+            item.setName("Дрель " + n);
+            items.add(itemRepository.save(item));
+        }
+
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+        List<Callable<BookingOutDto>> creations = new ArrayList<>();
+        for (Item item : items) {
+            for (int p = 0; p < PERIODS_PER_ITEM; p++) {
+                BookingInDto dto = new BookingInDto(null, day.plusHours(2L * p).toString(),
+                        day.plusHours(2L * p + 2).toString(), item.getId());
+                creations.add(() -> bookingService.createBooking(booker.getId(), dto));
+                creations.add(() -> bookingService.createBooking(booker.getId(), dto));
+            }
+        }
+        Outcome<BookingOutDto> created = runConcurrently(creations);
+        assertEquals(ITEMS * PERIODS_PER_ITEM, created.results.size());
+        assertEquals(ITEMS * PERIODS_PER_ITEM, created.conflicts.get());
+
+        List<Callable<BookingOutDto>> approvals = new ArrayList<>();
+        for (BookingOutDto booking : created.results) {
+            for (int tab = 0; tab < TABS; tab++) {
+                approvals.add(() -> bookingService.reviewBooking(owner.getId(), booking.getId(), true));
+            }
+        }
+        Outcome<BookingOutDto> approved = runConcurrently(approvals);
+        assertEquals(created.results.size(), approved.results.size());
+        assertEquals(created.results.size() * (TABS - 1), approved.conflicts.get());
+
+        for (Item item : items) {
+            List<Booking> bookings = bookingRepository.findAll().stream()
+                    .filter(booking -> booking.getItem().getId().equals(item.getId()))
+                    .sorted(Comparator.comparing(Booking::getStart))
+                    .toList();
+            assertEquals(PERIODS_PER_ITEM, bookings.size());
+            for (int i = 0; i < bookings.size(); i++) {
+                Booking booking = bookings.get(i);
+                assertEquals(Status.APPROVED, booking.getStatus());
+                // Создание и одно-единственное подтверждение
+                assertEquals(1L, booking.getVersion());
+                if (i > 0) {
+                    assertFalse(bookings.get(i - 1).getEnd().isAfter(booking.getStart()));
+                }
+            }
+            Item stored = itemRepository.findById(item.getId()).orElseThrow();
+            assertFalse(stored.getAvailable());
+            // Вещь помечается недоступной первым подтверждением, следующие её не трогают
+            assertEquals(1L, stored.getVersion());
+        }
+    }
+
+    // На H2 нет ограничения-исключения: пересечение ловит только календарь узла
+    @Test
+    void repeatedApprovalKeepsPeriodInCalendar() {
+        String run = Long.toString(System.nanoTime());
+        User owner = userRepository.save(user("owner" + run));
+        User booker = userRepository.save(user("booker" + run));
+        Item item = itemRepository.save(item(owner));
+        LocalDateTime day = LocalDate.now().plusDays(1).atStartOfDay();
+
+        BookingOutDto booking = bookingService.createBooking(booker.getId(),
+                new BookingInDto(null, day.plusHours(10).toString(), day.plusHours(12).toString(), item.getId()));
+        bookingService.reviewBooking(owner.getId(), booking.getId(), true);
+        assertThrows(ConflictException.class, () -> bookingService.reviewBooking(owner.getId(), booking.getId(), true));
+
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        stored.setAvailable(true);
+        itemRepository.save(stored);
+        BookingInDto overlapping = new BookingInDto(null, day.plusHours(11).toString(), day.plusHours(13).toString(),
+                item.getId());
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(booker.getId(), overlapping));
+    }
+
+    private <T> Outcome<T> runConcurrently(List<Callable<T>> tasks) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Outcome<T> outcome = new Outcome<>();
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (Callable<T> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            for (Future<T> future : futures) {
+                try {
+                    outcome.results.add(future.get(60, TimeUnit.SECONDS));
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof ConflictException)) {
+                        throw new IllegalStateException("Неожиданная ошибка", e.getCause());
+                    }
+                    outcome.conflicts.incrementAndGet();
+                } catch (TimeoutException e) {
+                    throw new IllegalStateException("Операция не завершилась за минуту", e);
+                }
+            }
+            double seconds = (System.nanoTime() - began) / 1e9;
+            log.info("{} операций за {} с: {} в секунду, конфликтов {}", tasks.size(), String.format("%.2f", seconds),
+                    Math.round(tasks.size() / seconds), outcome.conflicts.get());
+            assertTrue(seconds < 60);
+        } finally {
+            executor.shutdownNow();
+        }
+        return outcome;
+    }
+
+    private static final class Outcome<T> {
+        private final List<T> results = new CopyOnWriteArrayList<>();
+        private final AtomicInteger conflicts = new AtomicInteger();
+    }
+}
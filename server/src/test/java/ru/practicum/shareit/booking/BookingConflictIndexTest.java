@@ -0,0 +1,157 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.services.BookingConflictIndex;
+import ru.practicum.shareit.exceptions.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingConflictIndexTest {
+    private static final long ITEM_ID = 1L;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingConflictIndex bookingConflictIndex;
+
+    private final LocalDateTime day = LocalDate.now().plusDays(10).atStartOfDay();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reserveRejectsOverlap() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(1L, 11, 13)));
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(2L, 9, 11)));
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(3L, 8, 14)));
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(4L, 10, 12)));
+    }
+
+    @Test
+    void reserveAllowsAdjacentPeriodsAndLoadsCalendarOnce() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        bookingConflictIndex.reserve(booking(1L, 8, 10));
+        bookingConflictIndex.reserve(booking(2L, 12, 14));
+
+        // Конфликт перепроверяется по свежему календарю - второй и последний запрос к базе
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(3L, 11, 13)));
+        verify(bookingRepository, times(2)).findPeriods(eq(ITEM_ID), any(), any());
+    }
+
+    @Test
+    void reserveIsIdempotentForSameBooking() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        assertDoesNotThrow(() -> bookingConflictIndex.reserve(booking(10L, 10, 12)));
+    }
+
+    @Test
+    void reserveIgnoresOwnRowSeenByLoad() {
+        // Новое бронирование уже вставлено в текущей транзакции и попадает в выборку календаря
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)),
+                new BookingPeriod(11L, day.plusHours(11), day.plusHours(14)));
+
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(11L, 11, 14)));
+    }
+
+    @Test
+    void reserveReloadsStaleCalendarBeforeConflict() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        bookingConflictIndex.reserve(booking(1L, 8, 9));
+        // Бронирование 10 отклонили на другом узле
+        stored(new BookingPeriod(1L, day.plusHours(8), day.plusHours(9)));
+
+        assertDoesNotThrow(() -> bookingConflictIndex.reserve(booking(2L, 11, 13)));
+    }
+
+    @Test
+    void releaseFreesPeriod() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        bookingConflictIndex.reserve(booking(1L, 13, 14));
+        bookingConflictIndex.release(booking(1L, 13, 14));
+
+        assertDoesNotThrow(() -> bookingConflictIndex.reserve(booking(2L, 13, 14)));
+        verify(bookingRepository).findPeriods(eq(ITEM_ID), any(), any());
+    }
+
+    @Test
+    void rolledBackReservationIsReleased() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        TransactionSynchronizationManager.initSynchronization();
+        bookingConflictIndex.reserve(booking(1L, 13, 14));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertDoesNotThrow(() -> bookingConflictIndex.reserve(booking(2L, 13, 14)));
+    }
+
+    @Test
+    void rolledBackConfirmationKeepsPeriod() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        TransactionSynchronizationManager.initSynchronization();
+        bookingConflictIndex.confirm(booking(10L, 10, 12));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // Неудачное подтверждение не освобождает период: бронирование по-прежнему его занимает
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(2L, 11, 13)));
+    }
+
+    @Test
+    void evictReloadsCalendarAndKeepsPendingReservations() {
+        stored(new BookingPeriod(10L, day.plusHours(10), day.plusHours(12)));
+        TransactionSynchronizationManager.initSynchronization();
+        bookingConflictIndex.reserve(booking(1L, 13, 14));
+
+        bookingConflictIndex.evict(ITEM_ID);
+
+        // Незафиксированная бронь 1 в базе ещё не видна, но календарь после перечитывания её помнит
+        assertThrows(ConflictException.class, () -> bookingConflictIndex.reserve(booking(2L, 13, 15)));
+        verify(bookingRepository, times(2)).findPeriods(eq(ITEM_ID), any(), any());
+    }
+
+    private void stored(BookingPeriod... periods) {
+        when(bookingRepository.findPeriods(eq(ITEM_ID), any(), any()))
+                .thenReturn(List.of(periods));
+    }
+
+    private Booking booking(Long id, int startHour, int endHour) {
+        Item item = new Item();
+        item.setId(ITEM_ID);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(day.plusHours(startHour));
+        booking.setEnd(day.plusHours(endHour));
+        return booking;
+    }
+}
@@ -6,24 +6,36 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingReviewResultDto;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
 import ru.practicum.shareit.booking.services.BookingService;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
+import ru.practicum.shareit.utils.HttpHeaders;
+import ru.practicum.shareit.utils.KeysetPages;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookingController.class)
@@ -31,6 +43,9 @@ public class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingEventBroker bookingEventBroker;
+
     private final ObjectMapper mapper = new ObjectMapper();
 
     @Autowired
@@ -38,14 +53,9 @@ public class BookingControllerTest {
 
     private BookingInDto inDto;
     private BookingOutDto outDto;
-    private User user = new User();
-    private Item item = new Item();
 
     @BeforeEach
     void setUp() {
-        user.setId(1L);
-        item.setId(1L);
-
         inDto = new BookingInDto();
         inDto.setId(1L);
         inDto.setItemId(1L);
@@ -55,8 +65,8 @@ public class BookingControllerTest {
         outDto = new BookingOutDto();
         outDto.setId(1L);
         outDto.setStatus(Status.APPROVED);
-        outDto.setBooker(user);
-        outDto.setItem(item);
+        outDto.setBooker(new UserShortDto(1L, "name"));
+        outDto.setItem(new ItemShortDto(1L, "name"));
     }
 
     @Test
@@ -96,8 +106,8 @@ public class BookingControllerTest {
 
     @Test
     void foundBookingsByState() throws Exception {
-        when(bookingService.foundBookingsByState(anyLong(), any()))
-                .thenReturn(List.of(outDto));
+        when(bookingService.foundBookingsByState(anyLong(), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(outDto), i -> ScrollPosition.forward(Map.of("id", 1L)), true));
 
         mvc.perform(get("/bookings?state=text")
                         .header("X-Sharer-User-Id", 1L)
@@ -105,6 +115,8 @@ public class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.NEXT_PAGE_TOKEN,
+                        KeysetPages.encode(ScrollPosition.forward(Map.of("id", 1L)))))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].status", is(outDto.getStatus().toString())))
                 .andExpect(jsonPath("$[0].start", is(outDto.getStart())))
@@ -113,8 +125,8 @@ public class BookingControllerTest {
 
     @Test
     void foundUsersBookingsByState() throws Exception {
-        when(bookingService.foundUsersBookingsByState(anyLong(), any()))
-                .thenReturn(List.of(outDto));
+        when(bookingService.foundUsersBookingsByState(anyLong(), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(outDto), i -> ScrollPosition.keyset(), false));
 
         mvc.perform(get("/bookings/owner?state=text")
                         .header("X-Sharer-User-Id", 1L)
@@ -122,6 +134,7 @@ public class BookingControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.NEXT_PAGE_TOKEN))
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].status", is(outDto.getStatus().toString())))
                 .andExpect(jsonPath("$[0].start", is(outDto.getStart())))
@@ -145,4 +158,37 @@ public class BookingControllerTest {
                 .andExpect(jsonPath("$.start", is(outDto.getStart())))
                 .andExpect(jsonPath("$.end", is(outDto.getEnd())));
     }
+
+    @Test
+    void streamEvents() throws Exception {
+        when(bookingEventBroker.subscribe(1L))
+                .thenReturn(new SseEmitter());
+
+        mvc.perform(get("/bookings/events")
+                        .header("X-Sharer-User-Id", 1L)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void reviewBookings() throws Exception {
+        List<BookingReviewDto> reviews = List.of(new BookingReviewDto(1L, true), new BookingReviewDto(2L, false));
+        when(bookingService.reviewBookings(1L, reviews))
+                .thenReturn(List.of(new BookingReviewResultDto(1L, ReviewOutcome.APPROVED, outDto),
+                        new BookingReviewResultDto(2L, ReviewOutcome.NOT_OWNER, null)));
+
+        mvc.perform(patch("/bookings/bulk")
+                        .header("X-Sharer-User-Id", 1L)
+                        .content(mapper.writeValueAsString(reviews))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookingId", is(1)))
+                .andExpect(jsonPath("$[0].outcome", is("APPROVED")))
+                .andExpect(jsonPath("$[0].booking.status", is(outDto.getStatus().toString())))
+                .andExpect(jsonPath("$[1].bookingId", is(2)))
+                .andExpect(jsonPath("$[1].outcome", is("NOT_OWNER")))
+                .andExpect(jsonPath("$[1].booking").doesNotExist());
+    }
 }
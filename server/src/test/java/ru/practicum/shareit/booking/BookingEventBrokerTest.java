@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingEventDto;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
+import ru.practicum.shareit.item.dto.ItemShortDto;
+import ru.practicum.shareit.user.dto.UserShortDto;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingEventBrokerTest {
+    private static final long OWNER_ID = 1L;
+    private static final long BOOKER_ID = 2L;
+    private static final int BUFFER_SIZE = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingEventBroker broker = new BookingEventBroker(meterRegistry, BUFFER_SIZE, Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        broker.shutdown();
+    }
+
+    @Test
+    void eventReachesBookerAndOwnerOnly() throws InterruptedException {
+        RecordingEmitter owner = subscribe(OWNER_ID);
+        RecordingEmitter booker = subscribe(BOOKER_ID);
+        RecordingEmitter stranger = subscribe(3L);
+
+        broker.publish(BookingEventType.CREATED, booking(), OWNER_ID);
+
+        assertTrue(owner.next().contains("event:CREATED"));
+        assertTrue(booker.next().contains("event:CREATED"));
+        assertNull(stranger.sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void eventIsSentAfterCommit() throws InterruptedException {
+        RecordingEmitter booker = subscribe(BOOKER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        broker.publish(BookingEventType.APPROVED, booking(), OWNER_ID);
+        assertNull(booker.sent.poll(200, TimeUnit.MILLISECONDS));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertTrue(booker.next().contains("event:APPROVED"));
+    }
+
+    @Test
+    void slowSubscriberGetsResyncInsteadOfBacklog() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        broker.subscribe(BOOKER_ID, slow);
+        // Отправка приветствия заблокирована, события копятся в очереди
+        assertTrue(slow.blocked.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            broker.publish(BookingEventType.CREATED, booking(), OWNER_ID);
+        }
+        release.countDown();
+
+        List<String> received = new ArrayList<>();
+        String event;
+        while ((event = slow.sent.poll(500, TimeUnit.MILLISECONDS)) != null) {
+            received.add(event);
+        }
+        // Приветствие, RESYNC вместо вытесненных событий и хвост, уместившийся в очередь
+        assertEquals(5, received.size(), received::toString);
+        assertTrue(received.get(1).contains("event:RESYNC"));
+        assertTrue(received.getLast().startsWith("id:10\n"));
+        assertEquals(2, meterRegistry.get("booking.events.resync").counter().count());
+    }
+
+    @Test
+    void disconnectedSubscriberIsDropped() throws InterruptedException {
+        broker.subscribe(BOOKER_ID, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+
+        for (int i = 0; i < 50 && subscribers() > 0; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, subscribers());
+    }
+
+    @Test
+    void heartbeatPingsIdleSubscriber() throws InterruptedException {
+        RecordingEmitter booker = subscribe(BOOKER_ID);
+
+        broker.heartbeat();
+
+        assertEquals(":ping\n\n", booker.next());
+    }
+
+    private RecordingEmitter subscribe(long userId) throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter(null);
+        broker.subscribe(userId, emitter);
+        assertEquals(":connected\n\n", emitter.next());
+        return emitter;
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("booking.events.subscribers").gauge().value();
+    }
+
+    private static BookingOutDto booking() {
+        BookingOutDto booking = new BookingOutDto();
+        booking.setId(1L);
+        booking.setItem(new ItemShortDto(1L, "Дрель"));
+        booking.setBooker(new UserShortDto(BOOKER_ID, "booker"));
+        return booking;
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch blocked = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (release != null && blocked.getCount() > 0) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData() instanceof BookingEventDto event
+                    ? event.getType().name() : part.getData()));
+            sent.add(text.toString());
+        }
+
+        String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertTrue(event != null, "Событие не отправлено");
+            return event;
+        }
+    }
+}
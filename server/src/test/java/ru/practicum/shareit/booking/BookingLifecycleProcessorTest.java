@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.services.BookingLifecycle;
+import ru.practicum.shareit.booking.services.BookingLifecycleProcessor;
+import ru.practicum.shareit.scheduling.LeaderLock;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingLifecycleProcessorTest {
+    private static final int CHUNK = 2;
+    private static final Duration ARCHIVE_AFTER = Duration.ofDays(90);
+
+    @Mock
+    private BookingLifecycle bookingLifecycle;
+
+    @Mock
+    private LeaderLock leaderLock;
+
+    @Test
+    void sweepDrainsChunksUnderLease() {
+        BookingLifecycleProcessor processor = processor();
+        when(leaderLock.tryAcquire(anyString(), any()))
+                .thenReturn(true);
+        when(bookingLifecycle.expireWaiting(any(), eq(CHUNK)))
+                .thenReturn(CHUNK, CHUNK, 1);
+        when(bookingLifecycle.finishApproved(any(), eq(CHUNK)))
+                .thenReturn(0);
+
+        processor.sweep();
+
+        verify(bookingLifecycle, times(3)).expireWaiting(any(), eq(CHUNK));
+        verify(bookingLifecycle, times(1)).finishApproved(any(), eq(CHUNK));
+        LocalDateTime archiveBefore = LocalDateTime.now(ZoneOffset.UTC).minus(ARCHIVE_AFTER);
+        verify(bookingLifecycle).archiveEnded(argThat(before -> !before.isAfter(archiveBefore)
+                && before.isAfter(archiveBefore.minusMinutes(1))), eq(CHUNK));
+        verify(leaderLock).release("booking-lifecycle");
+    }
+
+    @Test
+    void sweepSkippedWithoutLease() {
+        BookingLifecycleProcessor processor = processor();
+        when(leaderLock.tryAcquire(anyString(), any()))
+                .thenReturn(false);
+
+        processor.sweep();
+
+        verify(bookingLifecycle, never()).expireWaiting(any(), anyInt());
+        verify(bookingLifecycle, never()).finishApproved(any(), anyInt());
+        verify(bookingLifecycle, never()).archiveEnded(any(), anyInt());
+        verify(leaderLock, never()).release(anyString());
+    }
+
+    @Test
+    void leaseReleasedWhenSweepFails() {
+        BookingLifecycleProcessor processor = processor();
+        when(leaderLock.tryAcquire(anyString(), any()))
+                .thenReturn(true);
+        when(bookingLifecycle.expireWaiting(any(), eq(CHUNK)))
+                .thenThrow(new IllegalStateException("База недоступна"));
+
+        try {
+            processor.sweep();
+        } catch (IllegalStateException ignored) {
+            // Исключение уходит планировщику, аренда освобождается
+        }
+
+        verify(leaderLock).release("booking-lifecycle");
+    }
+
+    private BookingLifecycleProcessor processor() {
+        return new BookingLifecycleProcessor(bookingLifecycle, leaderLock, CHUNK, Duration.ofMinutes(5), ARCHIVE_AFTER);
+    }
+}
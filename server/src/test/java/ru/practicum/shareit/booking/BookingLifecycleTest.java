@@ -0,0 +1,169 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.TestEntities;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.services.BookingLifecycle;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static ru.practicum.shareit.TestEntities.user;
+
+@DataJpaTest
+@Import({BookingLifecycle.class, ItemViewCache.class, Outbox.class})
+public class BookingLifecycleTest {
+    @Autowired
+    private BookingLifecycle bookingLifecycle;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    private User booker;
+    private Item returned;
+    private Item rentedAgain;
+
+    @BeforeEach
+    void setUp() {
+        User owner = em.persist(user("owner"));
+        booker = em.persist(user("booker"));
+        returned = item(owner, false, true);
+        rentedAgain = item(owner, false, true);
+    }
+
+    @Test
+    void expireWaitingInChunks() {
+        Booking started = booking(returned, Status.WAITING, now.minusHours(3), now.plusHours(3));
+        Booking startedEarlier = booking(returned, Status.WAITING, now.minusDays(2), now.minusDays(1));
+        Booking future = booking(returned, Status.WAITING, now.plusDays(1), now.plusDays(2));
+        Booking approved = booking(returned, Status.APPROVED, now.minusHours(1), now.plusHours(1));
+        em.flush();
+        em.clear();
+
+        assertEquals(1, bookingLifecycle.expireWaiting(now, 1));
+        assertEquals(1, bookingLifecycle.expireWaiting(now, 1));
+        assertEquals(0, bookingLifecycle.expireWaiting(now, 1));
+
+        assertEquals(Status.EXPIRED, reload(started).getStatus());
+        assertEquals(Status.EXPIRED, reload(startedEarlier).getStatus());
+        assertEquals(1L, reload(started).getVersion());
+        assertEquals(Status.WAITING, reload(future).getStatus());
+        assertEquals(Status.APPROVED, reload(approved).getStatus());
+        assertEquals(List.of("BOOKING " + startedEarlier.getId() + " EXPIRED", "BOOKING " + started.getId() + " EXPIRED"),
+                changes());
+    }
+
+    @Test
+    void finishApprovedRestoresItemsWithoutActiveBookings() {
+        Booking ended = booking(returned, Status.APPROVED, now.minusDays(2), now.minusDays(1));
+        Booking endedToo = booking(rentedAgain, Status.APPROVED, now.minusDays(2), now.minusDays(1));
+        booking(rentedAgain, Status.APPROVED, now.plusDays(1), now.plusDays(2));
+        Booking rejected = booking(returned, Status.REJECTED, now.minusDays(4), now.minusDays(3));
+        em.flush();
+        em.clear();
+
+        assertEquals(2, bookingLifecycle.finishApproved(now, 10));
+
+        assertEquals(Status.FINISHED, reload(ended).getStatus());
+        assertEquals(Status.FINISHED, reload(endedToo).getStatus());
+        assertEquals(Status.REJECTED, reload(rejected).getStatus());
+        assertTrue(em.find(Item.class, returned.getId()).getAvailable());
+        // У вещи есть следующее подтверждённое бронирование - она остаётся занятой
+        assertFalse(em.find(Item.class, rentedAgain.getId()).getAvailable());
+        verify(itemSearchIndex, times(1)).index(any());
+        verify(itemSearchIndex).index(argThat(item -> item.getId().equals(returned.getId()) && item.getAvailable()));
+        assertEquals(0, bookingLifecycle.finishApproved(now, 10));
+        assertEquals(List.of("BOOKING " + ended.getId() + " FINISHED", "BOOKING " + endedToo.getId() + " FINISHED",
+                "ITEM " + returned.getId() + " UPDATED"), changes());
+    }
+
+    @Test
+    void finishApprovedKeepsItemsWithdrawnByOwner() {
+        Item withdrawn = item(returned.getOwner(), false, false);
+        Booking ended = booking(withdrawn, Status.APPROVED, now.minusDays(2), now.minusDays(1));
+        em.flush();
+        em.clear();
+
+        assertEquals(1, bookingLifecycle.finishApproved(now, 10));
+
+        assertEquals(Status.FINISHED, reload(ended).getStatus());
+        // Владелец снял вещь сам - закончившаяся аренда её не возвращает
+        assertFalse(em.find(Item.class, withdrawn.getId()).getAvailable());
+        verify(itemSearchIndex, never()).index(any());
+        assertEquals(List.of("BOOKING " + ended.getId() + " FINISHED"), changes());
+    }
+
+    private List<String> changes() {
+        return em.getEntityManager().createQuery("SELECT e FROM OutboxEvent e ORDER BY e.id", OutboxEvent.class)
+                .getResultStream()
+                .map(e -> e.getAggregate() + " " + e.getAggregateId() + " " + e.getType())
+                .toList();
+    }
+
+    @Test
+    void archiveEndedMovesOnlyFinalBookings() {
+        Booking finished = booking(returned, Status.FINISHED, now.minusDays(100), now.minusDays(99));
+        Booking rejected = booking(returned, Status.REJECTED, now.minusDays(120), now.minusDays(119));
+        Booking recent = booking(returned, Status.FINISHED, now.minusDays(10), now.minusDays(9));
+        Booking approved = booking(returned, Status.APPROVED, now.minusDays(100), now.minusDays(99));
+        em.flush();
+        em.clear();
+
+        assertEquals(1, bookingLifecycle.archiveEnded(now.minusDays(90), 1));
+        assertEquals(1, bookingLifecycle.archiveEnded(now.minusDays(90), 1));
+        assertEquals(0, bookingLifecycle.archiveEnded(now.minusDays(90), 1));
+
+        for (Booking moved : List.of(finished, rejected)) {
+            assertNull(em.find(Booking.class, moved.getId()));
+            ArchivedBooking archived = em.find(ArchivedBooking.class, moved.getId());
+            assertEquals(moved.getStatus(), archived.getStatus());
+            assertEquals(returned.getId(), archived.getItem().getId());
+            assertEquals(booker.getId(), archived.getBooker().getId());
+        }
+        assertEquals(Status.FINISHED, reload(recent).getStatus());
+        assertEquals(Status.APPROVED, reload(approved).getStatus());
+    }
+
+    private Booking reload(Booking booking) {
+        em.clear();
+        return em.find(Booking.class, booking.getId());
+    }
+
+    private Booking booking(Item item, Status status, LocalDateTime start, LocalDateTime end) {
+        return em.persist(TestEntities.booking(item, booker, status, start, end));
+    }
+
+    private Item item(User owner, boolean available, boolean blockedByBooking) {
+        Item item = TestEntities.item(owner);
+        item.setAvailable(available);
+        item.setBlockedByBooking(blockedByBooking);
+        return em.persist(item);
+    }
+}
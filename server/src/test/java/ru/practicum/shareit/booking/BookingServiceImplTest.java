@@ -6,19 +6,37 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.dto.BookingInDto;
 import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.dto.BookingReviewDto;
+import ru.practicum.shareit.booking.dto.BookingReviewResultDto;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingView;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.booking.services.BookingConflictIndex;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
 import ru.practicum.shareit.booking.services.BookingServiceImpl;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidateException;
+import ru.practicum.shareit.item.dto.ItemShortDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dto.UserShortDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -26,9 +44,12 @@ import java.util.Optional;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,6 +63,27 @@ public class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Mock
+    private BookingViewRepository bookingViewRepository;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private ItemViewCache itemViewCache;
+
+    @Mock
+    private BookingConflictIndex bookingConflictIndex;
+
+    @Mock
+    private BookingEventBroker bookingEventBroker;
+
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -73,13 +115,14 @@ public class BookingServiceImplTest {
         outDto = new BookingOutDto();
         outDto.setId(1L);
         outDto.setStatus(Status.APPROVED);
-        outDto.setBooker(user);
-        outDto.setItem(item);
+        outDto.setBooker(new UserShortDto(1L, "name"));
+        outDto.setItem(new ItemShortDto(1L, "name"));
 
         booking = new Booking();
         booking.setId(1L);
         booking.setStatus(Status.APPROVED);
         booking.setEnd(LocalDateTime.now());
+        booking.setBooker(user);
     }
 
     @Test
@@ -88,7 +131,7 @@ public class BookingServiceImplTest {
                 .thenReturn(Optional.ofNullable(item));
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.of(user));
-        when(bookingRepository.save(any()))
+        when(bookingRepository.saveAndFlush(any()))
                 .thenReturn(booking);
 
         BookingOutDto createdBooking = bookingService.createBooking(1L, inDto);
@@ -96,7 +139,50 @@ public class BookingServiceImplTest {
         assertEquals(1L, createdBooking.getId());
         assertEquals(inDto.getStart(), createdBooking.getStart());
         assertEquals(inDto.getEnd(), createdBooking.getEnd());
-        assertEquals(inDto.getItemId(), createdBooking.getItem().getId());
+        assertEquals(inDto.getItemId(), createdBooking.getItem().id());
+        verify(bookingEventBroker).publish(BookingEventType.CREATED, createdBooking, item.getOwner().getId());
+    }
+
+    @Test
+    void createBookingOverlappingOtherBooking() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        doThrow(new ConflictException("Вещь уже забронирована"))
+                .when(bookingConflictIndex).reserve(any(Booking.class));
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(1L, inDto));
+    }
+
+    @Test
+    void createBookingRejectedByExclusionConstraint() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("ex_bookings_item_period",
+                        new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(1L, inDto));
+
+        verify(bookingConflictIndex).evict(item.getId());
+        verify(bookingConflictIndex, never()).reserve(any(Booking.class));
+    }
+
+    @Test
+    void createBookingWithOtherIntegrityViolation() {
+        when(itemRepository.findById(any()))
+                .thenReturn(Optional.ofNullable(item));
+        when(userRepository.findById(anyLong()))
+                .thenReturn(Optional.of(user));
+        when(bookingRepository.saveAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("fk", new SQLException("fk", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(1L, inDto));
+
+        verify(bookingConflictIndex, never()).evict(anyLong());
     }
 
     @Test
@@ -115,7 +201,7 @@ public class BookingServiceImplTest {
 
         assertThat(actualMessage, equalTo(expectedMessage));
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
     }
 
     @Test
@@ -127,7 +213,7 @@ public class BookingServiceImplTest {
 
         Exception exception = assertThrows(NotFoundException.class, () -> bookingService.createBooking(1L, inDto));
 
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
     }
 
     @Test
@@ -144,20 +230,21 @@ public class BookingServiceImplTest {
         assertThat(actualMessage, equalTo(expectedMessage));
 
         verify(userRepository, never()).findById(anyLong());
-        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
     }
 
     @Test
     void getBookingById() {
         booking.setBooker(user);
+        booking.setItem(item);
         booking.setStart(LocalDateTime.now().plusDays(1));
-        when(bookingRepository.findById(any()))
+        when(bookingRepository.findDetailedById(any()))
                 .thenReturn(Optional.ofNullable(booking));
 
         BookingOutDto foundBooking = bookingService.getBookingById(1L, 1L);
 
         assertEquals(1L, foundBooking.getId());
-        assertEquals(foundBooking.getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getStatus(), booking.getStatus());
     }
 
@@ -167,7 +254,7 @@ public class BookingServiceImplTest {
         item.setId(2L);
         booking.setBooker(user);
         booking.setItem(item);
-        when(bookingRepository.findById(any()))
+        when(bookingRepository.findDetailedById(any()))
                 .thenReturn(Optional.ofNullable(booking));
 
         Exception exception = assertThrows(ValidateException.class, () -> bookingService.getBookingById(1L, 1L));
@@ -182,34 +269,38 @@ public class BookingServiceImplTest {
     void getBookingByState() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(bookingRepository.findAllByBookerId(any()))
-                .thenReturn(List.of(booking));
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
+        when(bookingViewRepository.scroll(eq(ArchivedBooking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundBookingsByState(1L, Optional.of("ALL"));
+        List<BookingOutDto> foundBooking = bookingService.foundBookingsByState(1L, Optional.of("ALL"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
     @Test
     void getBookingWithWrongState() {
-        Exception exception = assertThrows(IllegalArgumentException.class, () -> bookingService.foundBookingsByState(1L, Optional.of("asda")));
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> bookingService.foundBookingsByState(1L, Optional.of("asda"), ScrollPosition.keyset(), 10));
     }
 
     @Test
     void foundUsersBookingsByStateAll() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findByAllItems(any()))
-                .thenReturn(List.of(booking));
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(true);
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
+        when(bookingViewRepository.scroll(eq(ArchivedBooking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("ALL"));
+        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("ALL"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
@@ -217,15 +308,15 @@ public class BookingServiceImplTest {
     void foundUsersBookingsByStateCurrent() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findByItemsAndStatus(any(), any()))
-                .thenReturn(List.of(booking));
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(true);
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("CURRENT"));
+        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("CURRENT"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
@@ -233,15 +324,17 @@ public class BookingServiceImplTest {
     void foundUsersBookingsByStatePast() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findAllByBookerIdAndPast(any(), any()))
-                .thenReturn(List.of(booking));
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(true);
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
+        when(bookingViewRepository.scroll(eq(ArchivedBooking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("PAST"));
+        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("PAST"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
@@ -249,15 +342,15 @@ public class BookingServiceImplTest {
     void foundUsersBookingsByStateFuture() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findAllByBookerIdAndFuture(any(), any()))
-                .thenReturn(List.of(booking));
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(true);
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("FUTURE"));
+        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("FUTURE"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
@@ -265,15 +358,15 @@ public class BookingServiceImplTest {
     void foundUsersBookingsByStateWaiting() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findByItemsAndStatus(any(), any()))
-                .thenReturn(List.of(booking));
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(true);
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("WAITING"));
+        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("WAITING"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
@@ -281,15 +374,17 @@ public class BookingServiceImplTest {
     void foundUsersBookingsByStateRejected() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of(item));
-        when(bookingRepository.findByItemsAndStatus(any(), any()))
-                .thenReturn(List.of(booking));
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(true);
+        when(bookingViewRepository.scroll(eq(Booking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(view(booking)), i -> ScrollPosition.keyset(), false));
+        when(bookingViewRepository.scroll(eq(ArchivedBooking.class), any(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(), i -> ScrollPosition.keyset(), false));
 
-        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("REJECTED"));
+        List<BookingOutDto> foundBooking = bookingService.foundUsersBookingsByState(1L, Optional.of("REJECTED"), ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, foundBooking.getFirst().getId());
-        assertEquals(foundBooking.getFirst().getBooker().getId(), booking.getBooker().getId());
+        assertEquals(foundBooking.getFirst().getBooker().id(), booking.getBooker().getId());
         assertEquals(foundBooking.getFirst().getStatus(), booking.getStatus());
     }
 
@@ -297,10 +392,10 @@ public class BookingServiceImplTest {
     void foundUsersBookingsByStateWithWrongItem() {
         booking.setStart(LocalDateTime.now().plusDays(1));
         booking.setBooker(user);
-        when(itemRepository.findByOwnerId(any()))
-                .thenReturn(List.of());
+        when(itemRepository.existsByOwnerId(any()))
+                .thenReturn(false);
 
-        Exception exception = assertThrows(ValidateException.class, () -> bookingService.foundUsersBookingsByState(1L, Optional.of("ALL")));
+        Exception exception = assertThrows(ValidateException.class, () -> bookingService.foundUsersBookingsByState(1L, Optional.of("ALL"), ScrollPosition.keyset(), 10));
 
         String expectedMessage = "У пользователя нету вещей";
         String actualMessage = exception.getMessage();
@@ -311,7 +406,7 @@ public class BookingServiceImplTest {
     @Test
     void reviewBookingWithWrongOwner() {
         booking.setItem(item);
-        when(bookingRepository.findById(any()))
+        when(bookingRepository.findDetailedById(any()))
                 .thenReturn(Optional.ofNullable(booking));
 
         Exception exception = assertThrows(ValidateException.class, () -> bookingService.reviewBooking(1L, 1L, true));
@@ -327,16 +422,95 @@ public class BookingServiceImplTest {
         booking.setItem(item);
         booking.setStart(LocalDateTime.now().plusDays(1));
         item.setOwner(user);
-        when(bookingRepository.findById(any()))
+        when(bookingRepository.findDetailedById(any()))
                 .thenReturn(Optional.ofNullable(booking));
-        when(bookingRepository.save(any()))
-                .thenReturn(booking);
+        when(bookingRepository.reviewWaiting(1L, Status.APPROVED))
+                .thenReturn(1);
 
         BookingOutDto resultDto = bookingService.reviewBooking(1L, 1L, true);
 
         assertEquals(1L, resultDto.getId());
         assertEquals(resultDto.getStart(), booking.getStart().toString());
         assertEquals(resultDto.getEnd(), booking.getEnd().toString());
-        assertEquals(resultDto.getItem().getId(), booking.getItem().getId());
+        assertEquals(resultDto.getItem().id(), booking.getItem().getId());
+        assertEquals(Status.APPROVED, resultDto.getStatus());
+        assertFalse(item.getAvailable());
+        verify(itemRepository).markUnavailable(item.getId());
+        verify(itemSearchIndex).index(item);
+        verify(bookingConflictIndex).confirm(booking);
+        verify(bookingEventBroker).publish(BookingEventType.APPROVED, resultDto, user.getId());
+    }
+
+    @Test
+    void reviewBookingAlreadyReviewed() {
+        booking.setItem(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        item.setOwner(user);
+        when(bookingRepository.findDetailedById(any()))
+                .thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.reviewWaiting(1L, Status.APPROVED))
+                .thenReturn(0);
+
+        Exception exception = assertThrows(ConflictException.class, () -> bookingService.reviewBooking(1L, 1L, true));
+
+        assertThat(exception.getMessage(), equalTo("Бронирование уже рассмотрено"));
+        // Период рассмотренного бронирования в календаре не трогается
+        verifyNoInteractions(bookingConflictIndex);
+        verify(itemRepository, never()).markUnavailable(anyLong());
+        verify(itemSearchIndex, never()).index(any());
+        verifyNoInteractions(bookingEventBroker);
+    }
+
+    @Test
+    void rejectBookingReleasesPeriod() {
+        booking.setItem(item);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        item.setOwner(user);
+        when(bookingRepository.findDetailedById(any()))
+                .thenReturn(Optional.ofNullable(booking));
+        when(bookingRepository.reviewWaiting(1L, Status.REJECTED))
+                .thenReturn(1);
+
+        BookingOutDto resultDto = bookingService.reviewBooking(1L, 1L, false);
+
+        assertEquals(Status.REJECTED, resultDto.getStatus());
+        verify(bookingConflictIndex).release(booking);
+        verify(bookingConflictIndex, never()).confirm(any(Booking.class));
+    }
+
+    @Test
+    void reviewBookingsRejectsDuplicateIds() {
+        List<BookingReviewDto> reviews = List.of(new BookingReviewDto(1L, true), new BookingReviewDto(1L, false));
+
+        Exception exception = assertThrows(ValidateException.class, () -> bookingService.reviewBookings(1L, reviews));
+
+        assertThat(exception.getMessage(), equalTo("Бронирование 1 указано несколько раз"));
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    void reviewBookingsReportsRowsReviewedConcurrently() {
+        booking.setItem(item);
+        booking.setStatus(Status.WAITING);
+        booking.setStart(LocalDateTime.now().plusDays(1));
+        item.setOwner(user);
+        when(bookingRepository.findAllForReview(List.of(1L)))
+                .thenReturn(List.of(booking));
+        // Между чтением и блокировкой бронирование рассмотрели из другой вкладки
+        when(bookingRepository.lockWaiting(List.of(1L)))
+                .thenReturn(List.of());
+
+        List<BookingReviewResultDto> results = bookingService.reviewBookings(1L,
+                List.of(new BookingReviewDto(1L, true)));
+
+        assertEquals(ReviewOutcome.ALREADY_REVIEWED, results.getFirst().getOutcome());
+        verify(bookingRepository, never()).transition(any(), any(), any());
+        verify(itemRepository, never()).markAllUnavailable(any());
+        verify(itemSearchIndex, never()).index(any());
+    }
+
+    private BookingView view(Booking booking) {
+        return new BookingView(booking.getId(), booking.getStart(), booking.getEnd(), booking.getStatus(),
+                item.getId(), item.getName(), booking.getBooker().getId(), booking.getBooker().getName());
     }
 }
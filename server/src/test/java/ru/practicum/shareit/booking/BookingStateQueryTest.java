@@ -0,0 +1,166 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.BookingOutDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.booking.services.BookingConflictIndex;
+import ru.practicum.shareit.booking.services.BookingEventBroker;
+import ru.practicum.shareit.booking.services.BookingService;
+import ru.practicum.shareit.booking.services.BookingServiceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static ru.practicum.shareit.TestEntities.booking;
+import static ru.practicum.shareit.TestEntities.item;
+import static ru.practicum.shareit.TestEntities.user;
+
+/**
+ * Набор бронирований во всех сочетаниях статуса и положения относительно текущего момента:
+ * для каждого состояния постраничная выдача пользователя и владельца совпадает с фильтрацией набора в памяти.
+ */
+@DataJpaTest
+@Import({BookingServiceImpl.class, BookingViewRepository.class, ItemViewCache.class})
+public class BookingStateQueryTest {
+    private static final int ITEMS = 4;
+    private static final int PAGE_SIZE = 7;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @MockBean
+    private BookingConflictIndex bookingConflictIndex;
+
+    @MockBean
+    private BookingEventBroker bookingEventBroker;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @MockBean
+    private Outbox outbox;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private User booker;
+    private final List<Booking> bookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(user("owner"));
+        booker = em.persist(user("booker"));
+        User other = em.persist(user("other"));
+
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (int n = 0; n < ITEMS; n++) {
+            Item item = item(n % 2 == 0 ? owner : other);
+            item.setName("Дрель " + n);
+            em.persist(item);
+
+            for (Status status : Status.values()) {
+                // Закончившееся, идущее и будущее бронирование в каждом статусе
+                User user = (n + status.ordinal()) % 2 == 0 ? booker : other;
+                bookings.add(em.persist(booking(item, user, status, now.minusDays(3 + n), now.minusDays(2 + n))));
+                bookings.add(em.persist(booking(item, user, status, now.minusHours(5 + n), now.plusHours(5 + n))));
+                bookings.add(em.persist(booking(item, user, status, now.plusDays(2 + n), now.plusDays(3 + n))));
+            }
+        }
+
+        em.flush();
+        // Закончившиеся бронирования в конечных статусах уходят в архив: списки должны сливать обе таблицы
+        List<Long> archived = bookings.stream()
+                .filter(booking -> Status.FINAL.contains(booking.getStatus()) && booking.getEnd().isBefore(now))
+                .map(Booking::getId)
+                .toList();
+        archivedBookingRepository.copyFromBookings(archived, now);
+        bookingRepository.deleteByIdIn(archived);
+        em.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(States.class)
+    void bookerViewMatchesState(States state) {
+        assertPagesMatch(state, booking -> booking.getBooker().getId().equals(booker.getId()),
+                (position, size) -> bookingService.foundBookingsByState(booker.getId(), Optional.of(state.name()),
+                        position, size));
+    }
+
+    @ParameterizedTest
+    @EnumSource(States.class)
+    void ownerViewMatchesState(States state) {
+        assertPagesMatch(state, booking -> booking.getItem().getOwner().getId().equals(owner.getId()),
+                (position, size) -> bookingService.foundUsersBookingsByState(owner.getId(),
+                        Optional.of(state.name()), position, size));
+    }
+
+    private void assertPagesMatch(States state, Predicate<Booking> scope,
+                                  BiFunction<KeysetScrollPosition, Integer, Window<BookingOutDto>> query) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<Long> expected = bookings.stream()
+                .filter(scope)
+                .filter(booking -> inState(booking, state, now))
+                .sorted(Comparator.comparing(Booking::getStart).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .toList();
+
+        List<Long> actual = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<BookingOutDto> page;
+        do {
+            page = query.apply(position, PAGE_SIZE);
+            page.forEach(booking -> actual.add(booking.getId()));
+            if (!page.isEmpty()) {
+                position = (KeysetScrollPosition) page.positionAt(page.size() - 1);
+            }
+        } while (page.hasNext());
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
+    private static boolean inState(Booking booking, States state, LocalDateTime now) {
+        return switch (state) {
+            case ALL -> true;
+            case CURRENT -> booking.getStatus() == Status.APPROVED && !booking.getStart().isAfter(now)
+                    && booking.getEnd().isAfter(now);
+            case PAST -> booking.getEnd().isBefore(now);
+            case FUTURE -> booking.getStart().isAfter(now);
+            case WAITING -> booking.getStatus() == Status.WAITING;
+            case REJECTED -> booking.getStatus() == Status.REJECTED;
+        };
+    }
+}
@@ -0,0 +1,173 @@
+package ru.practicum.shareit.cache;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.StatementBudget;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repositories.UserRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кэш второго уровня: повторные чтения пользователей, вещей и выбранных запросов не доходят до базы,
+ * изменения своего узла и лента изменений других узлов вытесняют устаревшее.
+ * Тест работает без общей транзакции: запись, попавшая в кэш в транзакции, видна только следующим.
+ */
+@DataJpaTest
+@Import({EntityCacheConfig.class, EntityCacheInvalidator.class, Outbox.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EntityCacheTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private EntityCacheInvalidator invalidator;
+
+    @Autowired
+    private MeterBinder entityCacheMetrics;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User owner;
+    private Item item;
+    private LocalDateTime horizon;
+
+    @BeforeEach
+    void setUp() {
+        String run = Long.toString(System.nanoTime());
+        owner = new User();
+        owner.setName("owner");
+        owner.setEmail("owner" + run + "@mail.ru");
+        owner = userRepository.save(owner);
+
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Ударная");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+
+        horizon = LocalDate.now().atStartOfDay();
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(owner);
+        booking.setStatus(Status.APPROVED);
+        booking.setStart(horizon.plusDays(1));
+        booking.setEnd(horizon.plusDays(2));
+        bookingRepository.save(booking);
+
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    // Первое чтение пользователя и первое чтение вещи
+    @Test
+    @StatementBudget(2)
+    void repeatedReadsHitEntityCache() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        entityCacheMetrics.bindTo(registry);
+        double hits = registry.get("cache.gets").tag("cache", EntityCacheConfig.USERS).tag("result", "hit")
+                .functionCounter().count();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(owner.getName(), userRepository.findById(owner.getId()).orElseThrow().getName());
+            assertEquals(item.getName(), itemRepository.findById(item.getId()).orElseThrow().getName());
+        }
+
+        assertEquals(hits + 2, registry.get("cache.gets").tag("cache", EntityCacheConfig.USERS).tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    // Два запроса до обновления (повторы - из кэша), само обновление и те же запросы после него
+    @Test
+    @StatementBudget(5)
+    void bulkUpdateInvalidatesQueryCache() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(itemRepository.findViewById(item.getId()).orElseThrow().getAvailable());
+            assertTrue(itemRepository.findAvailableById(item.getId()).orElseThrow());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> itemRepository.markUnavailable(item.getId()));
+
+        assertFalse(itemRepository.findViewById(item.getId()).orElseThrow().getAvailable());
+        assertFalse(itemRepository.findAvailableById(item.getId()).orElseThrow());
+    }
+
+    // Чтение пользователя и вставка в журнал изменений
+    @Test
+    @StatementBudget(2)
+    void nativeOutboxInsertKeepsCache() {
+        userRepository.findById(owner.getId());
+
+        transactionTemplate.executeWithoutResult(status -> outbox.recordItems(List.of(item.getId()),
+                ChangeType.UPDATED));
+
+        assertTrue(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+        userRepository.findById(owner.getId());
+    }
+
+    // Календарь вещи читается один раз, пока в bookings ничего не изменилось
+    @Test
+    @StatementBudget(1)
+    void bookingPeriodsAreCachedWithinDay() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(1, bookingRepository.findPeriods(item.getId(), Status.BLOCKING, horizon).size());
+        }
+    }
+
+    // Каждое из трёх чтений - до и после применения ленты
+    @Test
+    @StatementBudget(6)
+    void changeFeedEvictsChangedEntitiesAndQueries() {
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+        bookingRepository.findPeriods(item.getId(), Status.BLOCKING, horizon);
+
+        invalidator.onChanges(List.of(
+                new OutboxEvent(Aggregate.USER, owner.getId(), ChangeType.UPDATED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.ITEM, item.getId(), ChangeType.UPDATED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.BOOKING, 1L, ChangeType.APPROVED, LocalDateTime.now())));
+
+        assertFalse(entityManagerFactory.getCache().contains(User.class, owner.getId()));
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+        bookingRepository.findPeriods(item.getId(), Status.BLOCKING, horizon);
+    }
+}
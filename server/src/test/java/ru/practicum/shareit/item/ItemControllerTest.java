@@ -6,27 +6,43 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemGetDto;
 import ru.practicum.shareit.item.services.ItemService;
+import ru.practicum.shareit.utils.ResponseBodyCache;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
+@Import(ResponseBodyCache.class)
 public class ItemControllerTest {
     @MockBean
     private ItemService itemService;
@@ -55,8 +71,9 @@ public class ItemControllerTest {
         getDto.setDescription("Descr");
         getDto.setAvailable(true);
         getDto.setRequest(1L);
-        getDto.setLastBooking("LAST");
-        getDto.setNextBooking("NEXT");
+        getDto.setLastBooking(new BookingShortDto(1L, 1L, 2L, LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+        getDto.setNextBooking(new BookingShortDto(2L, 1L, 3L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)));
         getDto.setComments(List.of());
 
         commentDto = new CommentDto();
@@ -91,8 +108,8 @@ public class ItemControllerTest {
 
     @Test
     void getItems() throws Exception {
-        when(itemService.getItems(anyLong()))
-                .thenReturn(List.of(dto));
+        when(itemService.getItems(anyLong(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(getDto), i -> ScrollPosition.keyset(), false));
 
         mvc.perform(get("/items")
                         .header("X-Sharer-User-Id", 1L)
@@ -101,9 +118,9 @@ public class ItemControllerTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].name", is(dto.getName())))
-                .andExpect(jsonPath("$[0].available", is(dto.getAvailable())))
-                .andExpect(jsonPath("$[0].description", is(dto.getDescription())));
+                .andExpect(jsonPath("$[0].name", is(getDto.getName())))
+                .andExpect(jsonPath("$[0].available", is(getDto.getAvailable())))
+                .andExpect(jsonPath("$[0].description", is(getDto.getDescription())));
     }
 
     @Test
@@ -119,13 +136,56 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.name", is(getDto.getName())))
                 .andExpect(jsonPath("$.available", is(getDto.getAvailable())))
                 .andExpect(jsonPath("$.description", is(getDto.getDescription())))
-                .andExpect(jsonPath("$.nextBooking", is(getDto.getNextBooking())))
-                .andExpect(jsonPath("$.lastBooking", is(getDto.getLastBooking())));
+                .andExpect(jsonPath("$.nextBooking.id", is(2)))
+                .andExpect(jsonPath("$.nextBooking.bookerId", is(3)))
+                .andExpect(jsonPath("$.nextBooking.itemId").doesNotExist())
+                .andExpect(jsonPath("$.lastBooking.id", is(1)))
+                .andExpect(jsonPath("$.lastBooking.bookerId", is(2)));
+    }
+
+    @Test
+    void getItemByIdRevalidatesByEtag() throws Exception {
+        when(itemService.getItemById(anyLong()))
+                .thenReturn(getDto);
+
+        MvcResult first = mvc.perform(get("/items/{itemId}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn();
+        byte[] body = first.getResponse().getContentAsByteArray();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(String.valueOf(body.length), first.getResponse().getHeader(HttpHeaders.CONTENT_LENGTH));
+
+        // Та же карточка отдаётся теми же байтами, а клиенту с её тегом - без тела
+        mvc.perform(get("/items/{itemId}", 1L))
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().bytes(body));
+        mvc.perform(get("/items/{itemId}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void getItemByIdReencodesNewView() throws Exception {
+        when(itemService.getItemById(anyLong()))
+                .thenReturn(getDto);
+        String etag = mvc.perform(get("/items/{itemId}", 1L))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        ItemGetDto renamed = new ItemGetDto(getDto.getId(), "Новое имя", getDto.getDescription(), getDto.getAvailable(),
+                getDto.getRequest(), getDto.getLastBooking(), getDto.getNextBooking(), getDto.getComments());
+        when(itemService.getItemById(anyLong()))
+                .thenReturn(renamed);
+
+        mvc.perform(get("/items/{itemId}", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.name", is("Новое имя")));
     }
 
     @Test
     void getItemWithSearch() throws Exception {
-        when(itemService.foundItem(anyLong(), any()))
+        when(itemService.foundItem(anyLong(), any(), anyInt(), anyInt()))
                 .thenReturn(List.of(dto));
 
         mvc.perform(get("/items/search?text=abc")
@@ -140,6 +200,22 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$[0].description", is(dto.getDescription())));
     }
 
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.getAvailability(1L, from, from.plusHours(8)))
+                .thenReturn(List.of(new FreePeriodDto(from, from.plusHours(2))));
+
+        mvc.perform(get("/items/{itemId}/availability", 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T18:00:00")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-01T12:00:00")));
+    }
+
     @Test
     void updateItem() throws Exception {
         when(itemService.updateItem(anyLong(), anyLong(), any(ItemDto.class)))
@@ -0,0 +1,156 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.StatementBudget;
+import ru.practicum.shareit.TestEntities;
+import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.item.dto.ItemGetDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.item.services.ItemService;
+import ru.practicum.shareit.item.services.ItemServiceImpl;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Outbox;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.services.RequestViewCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static ru.practicum.shareit.TestEntities.item;
+import static ru.practicum.shareit.TestEntities.user;
+
+@DataJpaTest
+@Import({ItemServiceImpl.class, ItemViewCache.class, RequestViewCache.class})
+public class ItemQueryCountTest {
+    // Вещь, текущее бронирование, следующее бронирование, комментарии с авторами
+    private static final long ITEM_STATEMENT_BUDGET = 4;
+    // Вещи владельца, текущие и следующие бронирования всех вещей, комментарии всех вещей
+    private static final long OWNER_ITEMS_STATEMENT_BUDGET = 3;
+    private static final int OWNER_ITEMS = 5;
+    private static final int PAGE_SIZE = 2;
+    private static final int PAGES = (OWNER_ITEMS + PAGE_SIZE - 1) / PAGE_SIZE;
+
+    @Autowired
+    private ItemService itemService;
+
+    @MockBean
+    private ItemSearchIndex itemSearchIndex;
+
+    @MockBean
+    private Outbox outbox;
+
+    @Autowired
+    private TestEntityManager em;
+
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(user("owner"));
+        User requester = em.persist(user("requester"));
+
+        ItemRequest request = new ItemRequest();
+        request.setDescription("Нужна дрель");
+        request.setRequester(requester);
+        em.persist(request);
+
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            bookers.add(em.persist(user("booker" + i)));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int n = 0; n < OWNER_ITEMS; n++) {
+            item = item(owner);
+            item.setName("Дрель " + n);
+            item.setRequest(request);
+            em.persist(item);
+
+            for (int i = 0; i < bookers.size(); i++) {
+                User booker = bookers.get(i);
+                booking(booker, now.minusDays(2 + i), now.minusDays(1 + i));
+                booking(booker, now.plusDays(2 + i), now.plusDays(3 + i));
+
+                Comment comment = new Comment();
+                comment.setText("Отличная дрель " + i);
+                comment.setItem(item);
+                comment.setAuthor(booker);
+                em.persist(comment);
+            }
+            booking(requester, now.minusDays(1), now.plusDays(1));
+        }
+
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @StatementBudget(ITEM_STATEMENT_BUDGET)
+    void getItemByIdFitsStatementBudget() {
+        ItemGetDto dto = itemService.getItemById(item.getId());
+
+        assertEquals(item.getId(), dto.getId());
+        assertNotNull(dto.getLastBooking());
+        assertNotNull(dto.getNextBooking());
+        assertEquals(3, dto.getComments().size());
+        dto.getComments().forEach(comment -> assertNotNull(comment.getAuthorName()));
+    }
+
+    @Test
+    @StatementBudget(OWNER_ITEMS_STATEMENT_BUDGET)
+    void getItemsFitsStatementBudget() {
+        List<ItemGetDto> items = itemService.getItems(owner.getId(), ScrollPosition.keyset(), OWNER_ITEMS).getContent();
+
+        assertEquals(OWNER_ITEMS, items.size());
+        items.forEach(dto -> assertEquals(3, dto.getComments().size()));
+    }
+
+    @Test
+    void getItemsMatchesSingleItems() {
+        List<ItemGetDto> items = itemService.getItems(owner.getId(), ScrollPosition.keyset(), OWNER_ITEMS).getContent();
+
+        for (ItemGetDto dto : items) {
+            ItemGetDto single = itemService.getItemById(dto.getId());
+            assertEquals(single.getLastBooking(), dto.getLastBooking());
+            assertEquals(single.getNextBooking(), dto.getNextBooking());
+            assertEquals(3, dto.getComments().size());
+        }
+    }
+
+    // Бюджет на все страницы: каждая выбирается тем же числом запросов, что и весь список
+    @Test
+    @StatementBudget(PAGES * OWNER_ITEMS_STATEMENT_BUDGET)
+    void getItemsPagesByKeysetWithSameBudget() {
+        List<Long> ids = new ArrayList<>();
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        Window<ItemGetDto> page;
+        do {
+            page = itemService.getItems(owner.getId(), position, PAGE_SIZE);
+            page.forEach(dto -> ids.add(dto.getId()));
+            position = (KeysetScrollPosition) page.positionAt(page.size() - 1);
+        } while (page.hasNext());
+
+        assertEquals(OWNER_ITEMS, ids.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+    }
+
+    private void booking(User booker, LocalDateTime start, LocalDateTime end) {
+        em.persist(TestEntities.booking(item, booker, Status.APPROVED, start, end));
+    }
+}
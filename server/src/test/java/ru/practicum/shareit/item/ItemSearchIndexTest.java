@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAllAvailableForSearch()).thenReturn(List.of(
+                new ItemDto(1L, "Дрель", "Простая дрель", true, null),
+                new ItemDto(2L, "Отвертка", "Аккумуляторная отвертка", true, null),
+                new ItemDto(3L, "Клей", "Тюбик суперклея", true, 5L)
+        ));
+        itemSearchIndex.rebuild();
+    }
+
+    @Test
+    void searchMatchesSubstringCaseInsensitive() {
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дРелЬ", 0, 10)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("аккУМУЛЯТОР", 0, 10)));
+        assertEquals(List.of(3L), ids(itemSearchIndex.search("суперклея", 0, 10)));
+        assertEquals(5L, itemSearchIndex.search("клей", 0, 10).getFirst().getRequestId());
+    }
+
+    @Test
+    void searchShortQuery() {
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(ids(itemSearchIndex.search("е", 0, 10))));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("тв", 0, 10)));
+    }
+
+    @Test
+    void searchRequiresWholeSubstring() {
+        // Все граммы "дрелька" кроме последних есть в индексе, но подстроки нет
+        assertTrue(itemSearchIndex.search("дрелька", 0, 10).isEmpty());
+        assertTrue(itemSearchIndex.search("", 0, 10).isEmpty());
+    }
+
+    @Test
+    void indexUpdatesAndRemovesUnavailable() {
+        Item item = new Item();
+        item.setId(1L);
+        item.setName("Перфоратор");
+        item.setDescription("Мощный");
+        item.setAvailable(true);
+        itemSearchIndex.index(item);
+
+        assertTrue(itemSearchIndex.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("перфо", 0, 10)));
+
+        item.setAvailable(false);
+        itemSearchIndex.index(item);
+
+        assertTrue(itemSearchIndex.search("перфо", 0, 10).isEmpty());
+    }
+
+    @Test
+    void changeFeedReindexesItemsFromDatabase() {
+        // Вещь 1 снята с аренды, вещь 2 переименована, вещь 3 удалена - всё на другом узле
+        when(itemRepository.findForSearchByIds(Set.of(1L, 2L, 3L))).thenReturn(List.of(
+                new ItemDto(1L, "Дрель", "Простая дрель", false, null),
+                new ItemDto(2L, "Шуруповерт", "Аккумуляторная отвертка", true, null)
+        ));
+
+        itemSearchIndex.onChanges(List.of(
+                new OutboxEvent(Aggregate.ITEM, 1L, ChangeType.UPDATED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.ITEM, 2L, ChangeType.UPDATED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.ITEM, 3L, ChangeType.DELETED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.ITEM, 2L, ChangeType.COMMENTED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.USER, 4L, ChangeType.UPDATED, LocalDateTime.now())));
+
+        assertTrue(itemSearchIndex.search("дрель", 0, 10).isEmpty());
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("шуруп", 0, 10)));
+        assertTrue(itemSearchIndex.search("клей", 0, 10).isEmpty());
+    }
+
+    @Test
+    void changeFeedWithoutItemEventsSkipsDatabase() {
+        itemSearchIndex.onChanges(List.of(
+                new OutboxEvent(Aggregate.ITEM, 1L, ChangeType.COMMENTED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.BOOKING, 1L, ChangeType.APPROVED, LocalDateTime.now())));
+
+        verify(itemRepository, never()).findForSearchByIds(anyCollection());
+    }
+
+    @Test
+    void searchRanksNameMatchesFirstAndPaginates() {
+        when(itemRepository.findAllAvailableForSearch()).thenReturn(List.of(
+                new ItemDto(1L, "Набор бит", "Подходят к любой дрели", true, null),
+                new ItemDto(2L, "Сверла", "Для дрели и шуруповерта", true, null),
+                new ItemDto(3L, "Дрель", "Ударная", true, null),
+                new ItemDto(4L, "Дрель аккумуляторная", "Дрель с двумя батареями", true, null)
+        ));
+        itemSearchIndex.rebuild();
+
+        assertEquals(List.of(3L, 4L, 1L, 2L), ids(itemSearchIndex.search("дрел", 0, 10)));
+        assertEquals(List.of(3L, 4L), ids(itemSearchIndex.search("дрел", 0, 2)));
+        assertEquals(List.of(1L, 2L), ids(itemSearchIndex.search("дрел", 2, 2)));
+        assertTrue(itemSearchIndex.search("дрел", 4, 2).isEmpty());
+    }
+
+    private static List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).toList();
+    }
+}
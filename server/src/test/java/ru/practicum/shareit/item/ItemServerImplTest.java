@@ -6,24 +6,39 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.booking.Status;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingPeriod;
+import ru.practicum.shareit.booking.repositories.ArchivedBookingRepository;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.exceptions.ConflictException;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidateException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentOutDto;
+import ru.practicum.shareit.item.dto.FreePeriodDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemGetDto;
+import ru.practicum.shareit.item.model.CommentView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.CommentRepository;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.services.ItemSearchIndex;
 import ru.practicum.shareit.item.services.ItemServiceImpl;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.services.RequestViewCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -47,9 +62,24 @@ public class ItemServerImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private ArchivedBookingRepository archivedBookingRepository;
+
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private Outbox outbox;
+
+    @Spy
+    private ItemViewCache itemViewCache = new ItemViewCache(100, Duration.ofMinutes(10));
+
+    @Mock
+    private RequestViewCache requestViewCache;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -83,8 +113,9 @@ public class ItemServerImplTest {
         getDto.setDescription("Descr");
         getDto.setAvailable(true);
         getDto.setRequest(1L);
-        getDto.setLastBooking("LAST");
-        getDto.setNextBooking("NEXT");
+        getDto.setLastBooking(new BookingShortDto(1L, 1L, 2L, LocalDateTime.now().minusDays(1), LocalDateTime.now()));
+        getDto.setNextBooking(new BookingShortDto(2L, 1L, 3L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2)));
         getDto.setComments(List.of());
 
         booking = new Booking();
@@ -165,27 +196,41 @@ public class ItemServerImplTest {
 
     @Test
     void getItems() {
-        when(itemRepository.findByOwnerId(anyLong()))
-                .thenReturn(List.of(item));
-
-        List<ItemDto> itemsList = itemService.getItems(1L);
+        BookingShortDto last = new BookingShortDto(1L, 1L, 1L, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1));
+        CommentView comment = new CommentView(1L, 1L, "comment", item.getName(), "author");
+        when(itemRepository.findViewsByOwnerId(anyLong(), anyLong(), any()))
+                .thenReturn(List.of(new ItemGetDto(1L, item.getName(), item.getDescription(), item.getAvailable(), null)));
+        when(bookingRepository.findLastAndNextBookings(any(), any()))
+                .thenReturn(List.of(last));
+        when(commentRepository.findViewsByItemIds(any()))
+                .thenReturn(List.of(comment));
+
+        List<ItemGetDto> itemsList = itemService.getItems(1L, ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(itemsList.size(), 1);
         assertEquals(itemsList.getFirst().getId(), 1L);
         assertEquals(itemsList.getFirst().getDescription(), item.getDescription());
         assertEquals(itemsList.getFirst().getName(), item.getName());
         assertEquals(itemsList.getFirst().getAvailable(), item.getAvailable());
+        assertEquals(itemsList.getFirst().getLastBooking(), last);
+        assertNull(itemsList.getFirst().getNextBooking());
+        assertEquals(itemsList.getFirst().getComments().size(), 1);
+        assertEquals(itemsList.getFirst().getComments().getFirst().getText(), comment.text());
+        assertEquals(itemsList.getFirst().getComments().getFirst().getAuthorName(), comment.authorName());
 
-        verify(itemRepository).findByOwnerId(anyLong());
+        verify(itemRepository).findViewsByOwnerId(1L, 0L, Limit.of(11));
     }
 
     @Test
     void getItemById() {
-        when(itemRepository.findById(anyLong()))
-                .thenReturn(Optional.ofNullable(item));
-        when(bookingRepository.findLastBooking(any(), any()))
-                .thenReturn(List.of(booking));
-        when(bookingRepository.findNextBooking(any(), any()))
+        BookingShortDto last = new BookingShortDto(1L, 1L, 1L, LocalDateTime.now().minusDays(1),
+                LocalDateTime.now().plusDays(1));
+        when(itemRepository.findViewById(anyLong()))
+                .thenReturn(Optional.of(new ItemGetDto(1L, item.getName(), item.getDescription(), item.getAvailable(), 5L)));
+        when(bookingRepository.findLastBooking(any(), any(), any()))
+                .thenReturn(List.of(last));
+        when(bookingRepository.findNextBooking(any(), any(), any()))
                 .thenReturn(Collections.emptyList());
 
         ItemGetDto getItem = itemService.getItemById(1L);
@@ -194,11 +239,13 @@ public class ItemServerImplTest {
         assertEquals(getItem.getDescription(), item.getDescription());
         assertEquals(getItem.getName(), item.getName());
         assertEquals(getItem.getAvailable(), item.getAvailable());
-        assertEquals(getItem.getRequest(), item.getRequest().getId());
-        assertEquals(getItem.getLastBooking(), booking.toString());
+        assertEquals(getItem.getRequest(), 5L);
+        assertEquals(getItem.getLastBooking(), last);
         assertNull(getItem.getNextBooking());
+        assertTrue(getItem.getComments().isEmpty());
 
-        verify(itemRepository, times(2)).findById(anyLong());
+        verify(itemRepository).findViewById(anyLong());
+        verify(itemRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -220,6 +267,20 @@ public class ItemServerImplTest {
         verify(itemRepository, times(1)).findById(anyLong());
     }
 
+    @Test
+    void updateItemChangedConcurrently() {
+        when(itemRepository.findById(anyLong()))
+                .thenReturn(Optional.ofNullable(item));
+        when(itemRepository.saveAndFlush(any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        User userUpdate = new User();
+        userUpdate.setId(1L);
+        item.setOwner(userUpdate);
+
+        assertThrows(ConflictException.class, () -> itemService.updateItem(1L, 1L, dto));
+        verify(itemSearchIndex, never()).index(any());
+    }
+
     @Test
     void updateItemWithWrongItemId() {
         when(itemRepository.findById(anyLong()))
@@ -252,10 +313,10 @@ public class ItemServerImplTest {
 
     @Test
     void foundItem() {
-        when(itemRepository.findByNameOrDescriptionContaining(anyString()))
-                .thenReturn(List.of(item));
+        when(itemSearchIndex.search(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(ItemMapper.toItemDto(item)));
 
-        List<ItemDto> itemList = itemService.foundItem(1L, Optional.of("text"));
+        List<ItemDto> itemList = itemService.foundItem(1L, Optional.of("text"), 0, 10);
 
         assertEquals(itemList.size(), 1);
         assertEquals(itemList.getFirst().getId(), 1L);
@@ -278,4 +339,54 @@ public class ItemServerImplTest {
         assertEquals(comment.getId(), commentDto.getId());
         assertEquals(comment.getText(), commentDto.getText());
     }
+
+    @Test
+    void getAvailabilityMergesBusyPeriods() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(true));
+        // Первый период начался до запрошенного окна, второй и третий пересекаются между собой
+        when(bookingRepository.findPeriodsBetween(1L, Status.BLOCKING, from, from.plusHours(24)))
+                .thenReturn(List.of(new BookingPeriod(1L, from.minusHours(2), from.plusHours(2)),
+                        new BookingPeriod(2L, from.plusHours(5), from.plusHours(9)),
+                        new BookingPeriod(3L, from.plusHours(6), from.plusHours(8)),
+                        new BookingPeriod(4L, from.plusHours(9), from.plusHours(12))));
+
+        List<FreePeriodDto> free = itemService.getAvailability(1L, from, from.plusHours(24));
+
+        assertEquals(List.of(new FreePeriodDto(from.plusHours(2), from.plusHours(5)),
+                new FreePeriodDto(from.plusHours(12), from.plusHours(24))), free);
+    }
+
+    @Test
+    void getAvailabilityWithoutBookings() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(true));
+        when(bookingRepository.findPeriodsBetween(1L, Status.BLOCKING, from, from.plusDays(1)))
+                .thenReturn(List.of());
+
+        assertEquals(List.of(new FreePeriodDto(from, from.plusDays(1))),
+                itemService.getAvailability(1L, from, from.plusDays(1)));
+    }
+
+    @Test
+    void getAvailabilityOfUnavailableItem() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findAvailableById(1L))
+                .thenReturn(Optional.of(false));
+
+        assertTrue(itemService.getAvailability(1L, from, from.plusDays(1)).isEmpty());
+        verify(bookingRepository, never()).findPeriodsBetween(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getAvailabilityWithWrongRangeOrItem() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        when(itemRepository.findAvailableById(99L))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ValidateException.class, () -> itemService.getAvailability(1L, from, from));
+        assertThrows(NotFoundException.class, () -> itemService.getAvailability(99L, from, from.plusDays(1)));
+    }
 }
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingShortDto;
+import ru.practicum.shareit.exceptions.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemGetDto;
+import ru.practicum.shareit.item.services.ItemViewCache;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ItemViewCacheTest {
+    private final ItemViewCache cache = new ItemViewCache(100, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void repeatedReadsLoadOnce() {
+        ItemGetDto view = cache.get(1L, loader(null, null));
+
+        assertSame(view, cache.get(1L, loader(null, null)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictionReloads() {
+        cache.get(1L, loader(null, null));
+        cache.get(2L, loader(null, null));
+
+        cache.evict(1L);
+        cache.get(1L, loader(null, null));
+        cache.get(2L, loader(null, null));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void viewLivesUntilBookingBoundary() {
+        LocalDateTime now = LocalDateTime.now();
+        // Следующее бронирование начнётся завтра: карточка ещё верна
+        cache.get(1L, loader(null, booking(now.plusDays(1), now.plusDays(2))));
+        cache.get(1L, loader(null, booking(now.plusDays(1), now.plusDays(2))));
+        // Текущее бронирование уже закончилось: карточку пора пересобрать
+        cache.get(2L, loader(booking(now.minusDays(2), now.minusDays(1)), null));
+        cache.get(2L, loader(booking(now.minusDays(2), now.minusDays(1)), null));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void evictionDuringLoadDiscardsLoadedView() {
+        Function<Long, ItemGetDto> invalidatedWhileLoading = itemId -> {
+            ItemGetDto view = loader(null, null).apply(itemId);
+            cache.evict(itemId);
+            return view;
+        };
+
+        cache.get(1L, invalidatedWhileLoading);
+        cache.get(1L, loader(null, null));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(NotFoundException.class, () -> cache.get(1L, itemId -> {
+            throw new NotFoundException();
+        }));
+
+        cache.get(1L, loader(null, null));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void changeFeedEvictsChangedItems() {
+        cache.get(1L, loader(null, null));
+        cache.get(2L, loader(null, null));
+
+        cache.onChanges(List.of(new OutboxEvent(Aggregate.ITEM, 1L, ChangeType.COMMENTED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.BOOKING, 2L, ChangeType.CREATED, LocalDateTime.now())));
+        cache.get(1L, loader(null, null));
+        cache.get(2L, loader(null, null));
+
+        assertEquals(3, loads.get());
+    }
+
+    private Function<Long, ItemGetDto> loader(BookingShortDto last, BookingShortDto next) {
+        return itemId -> {
+            loads.incrementAndGet();
+            return new ItemGetDto(itemId, "Дрель", "Ударная", true, null, last, next, List.of());
+        };
+    }
+
+    private static BookingShortDto booking(LocalDateTime start, LocalDateTime end) {
+        return new BookingShortDto(10L, 1L, 2L, start, end);
+    }
+}
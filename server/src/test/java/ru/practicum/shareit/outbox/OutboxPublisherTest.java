@@ -0,0 +1,172 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+public class OutboxPublisherTest {
+    private static final Duration SETTLE = Duration.ofSeconds(5);
+    private static final Duration GAP_TIMEOUT = Duration.ofMinutes(10);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    private final List<Long> delivered = new ArrayList<>();
+
+    @Test
+    void publishesInOrderAndResumesFromStoredOffset() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= 5; i++) {
+            ids.add(event(i, now).getId());
+        }
+
+        assertEquals(2, publisher("shareit-server").publishBatch(now, 2));
+        // Новый экземпляр - как после перезапуска - продолжает с сохранённой позиции
+        assertEquals(3, publisher("shareit-server").publishBatch(now, 10));
+        assertEquals(0, publisher("shareit-server").publishBatch(now, 10));
+        assertEquals(ids, delivered);
+        assertEquals(ids.getLast(), outboxOffsetRepository.findById("shareit-server").orElseThrow().getPosition());
+
+        // У другого подписчика своя позиция
+        delivered.clear();
+        assertEquals(5, publisher("other-node").publishBatch(now, 10));
+        assertEquals(ids, delivered);
+    }
+
+    @Test
+    void gapHoldsPublishingUntilSettled() {
+        OutboxEvent first = event(1L, now);
+        // Номер выдан транзакции, которая ещё не зафиксирована
+        outboxEventRepository.delete(event(2L, now));
+        OutboxEvent third = event(3L, now);
+
+        assertEquals(1, publisher("shareit-server").publishBatch(now, 10));
+        assertEquals(List.of(first.getId()), delivered);
+        assertEquals(0, publisher("shareit-server").publishBatch(now.plusSeconds(1), 10));
+
+        assertEquals(1, publisher("shareit-server").publishBatch(now.plus(SETTLE).plusSeconds(1), 10));
+        assertEquals(List.of(first.getId(), third.getId()), delivered);
+    }
+
+    @Test
+    void skippedGapIsDeliveredWhenSlowTransactionCommits() {
+        OutboxEvent first = event(1L, now);
+        OutboxEvent slow = event(2L, now);
+        // Номер 2 выдан транзакции, которая фиксируется дольше settle
+        outboxEventRepository.delete(slow);
+        OutboxEvent third = event(3L, now);
+        OutboxPublisher publisher = publisher("shareit-server");
+
+        assertEquals(2, publisher.publishBatch(now.plus(SETTLE).plusSeconds(1), 10));
+        assertEquals(List.of(first.getId(), third.getId()), delivered);
+
+        commitLate(slow.getId());
+        assertEquals(0, publisher.publishBatch(now.plusMinutes(1), 10));
+        assertEquals(List.of(first.getId(), third.getId(), slow.getId()), delivered);
+
+        // Доставленный пропуск больше не перечитывается
+        publisher.publishBatch(now.plusMinutes(2), 10);
+        assertEquals(3, delivered.size());
+    }
+
+    @Test
+    void skippedGapIsForgottenAfterTimeout() {
+        event(1L, now);
+        OutboxEvent rolledBack = event(2L, now);
+        outboxEventRepository.delete(rolledBack);
+        event(3L, now);
+        OutboxPublisher publisher = publisher("shareit-server");
+        publisher.publishBatch(now.plus(SETTLE).plusSeconds(1), 10);
+
+        publisher.publishBatch(now.plus(GAP_TIMEOUT).plusMinutes(1), 10);
+        commitLate(rolledBack.getId());
+        publisher.publishBatch(now.plus(GAP_TIMEOUT).plusMinutes(2), 10);
+
+        assertEquals(2, delivered.size());
+    }
+
+    @Test
+    void purgeKeepsEventsNotYetDeliveredToEveryConsumer() {
+        // Позиции заведены на пустом журнале, поэтому оба узла читают его с начала
+        publisher("shareit-server").publishBatch(now, 10);
+        publisher("other-node").publishBatch(now, 10);
+        LocalDateTime old = now.minusDays(10);
+        for (long i = 1; i <= 4; i++) {
+            event(i, old);
+        }
+        event(5L, now);
+        publisher("shareit-server").publishBatch(now, 10);
+        publisher("other-node").publishBatch(now, 2);
+
+        assertEquals(2, publisher("shareit-server").purge(now.minusDays(7)));
+        assertEquals(3, outboxEventRepository.count());
+    }
+
+    @Test
+    void purgeDropsOffsetsOfStoppedNodes() {
+        LocalDateTime old = now.minusDays(10);
+        // Узел завёл позицию и остановился, не прочитав ни одного события
+        publisher("stopped-node").publishBatch(old, 10);
+        for (long i = 1; i <= 3; i++) {
+            event(i, old);
+        }
+        publisher("shareit-server").publishBatch(now, 10);
+
+        assertEquals(3, publisher("shareit-server").purge(now.minusDays(7)));
+        assertEquals(List.of("shareit-server"), outboxOffsetRepository.findAll().stream()
+                .map(OutboxOffset::getConsumer).toList());
+    }
+
+    @Test
+    void newConsumerSkipsHistoryWrittenBeforeItStarted() {
+        for (long i = 1; i <= 3; i++) {
+            event(i, now.minusDays(1));
+        }
+        OutboxEvent fresh = event(4L, now);
+
+        assertEquals(1, publisher("new-node").publishBatch(now, 10));
+        assertEquals(List.of(fresh.getId()), delivered);
+        assertEquals(fresh.getId(), outboxOffsetRepository.findById("new-node").orElseThrow().getPosition());
+    }
+
+    @Test
+    void consumerDefaultsToHostName() throws UnknownHostException {
+        assertEquals(InetAddress.getLocalHost().getHostName(), publisher("").getConsumer());
+    }
+
+    private OutboxPublisher publisher(String consumer) {
+        ChangeSubscriber subscriber = events -> events.forEach(event -> delivered.add(event.getId()));
+        return new OutboxPublisher(outboxEventRepository, outboxOffsetRepository, List.of(subscriber),
+                new SimpleMeterRegistry(), consumer, SETTLE, GAP_TIMEOUT);
+    }
+
+    // Событие с уже выданным номером, как его видит публикатор после фиксации медленной транзакции
+    private void commitLate(Long id) {
+        jdbcTemplate.update("INSERT INTO outbox_events (id, aggregate, aggregate_id, change_type, created_at) " +
+                "VALUES (?, 'ITEM', 2, 'UPDATED', ?)", id, now);
+    }
+
+    private OutboxEvent event(Long itemId, LocalDateTime createdAt) {
+        return outboxEventRepository.saveAndFlush(new OutboxEvent(Aggregate.ITEM, itemId, ChangeType.UPDATED, createdAt));
+    }
+}
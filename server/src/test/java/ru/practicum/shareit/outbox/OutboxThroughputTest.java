@@ -0,0 +1,83 @@
+package ru.practicum.shareit.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Пропускная способность журнала изменений: запись событий по одному, как их пишут сервисы,
+ * и публикация пачками размера по умолчанию.
+ */
+@Slf4j
+@DataJpaTest
+@Import(Outbox.class)
+public class OutboxThroughputTest {
+    private static final int EVENTS = 10_000;
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxOffsetRepository outboxOffsetRepository;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Test
+    void publishesEventsInOrder() {
+        // Публикатор создаётся раньше событий, как на работающем узле: новый подписчик историю не читает
+        AtomicLong last = new AtomicLong();
+        AtomicLong received = new AtomicLong();
+        ChangeSubscriber subscriber = events -> events.forEach(event -> {
+            assertTrue(event.getId() > last.get(), "Нарушен порядок событий");
+            last.set(event.getId());
+            received.incrementAndGet();
+        });
+        OutboxPublisher publisher = new OutboxPublisher(outboxEventRepository, outboxOffsetRepository,
+                List.of(subscriber), new SimpleMeterRegistry(), "shareit-server", Duration.ofSeconds(5),
+                Duration.ofMinutes(10));
+
+        long began = System.nanoTime();
+        for (long id = 1; id <= EVENTS; id++) {
+            outbox.record(Aggregate.ITEM, id, ChangeType.UPDATED);
+        }
+        em.flush();
+        em.clear();
+        report("Записано", began);
+
+        began = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        int published;
+        do {
+            published = publisher.publishBatch(now, BATCH_SIZE);
+            em.flush();
+            em.clear();
+        } while (published == BATCH_SIZE);
+        report("Опубликовано", began);
+
+        assertEquals(EVENTS, received.get());
+    }
+
+    private static void report(String action, long began) {
+        double seconds = (System.nanoTime() - began) / 1e9;
+        log.info("{} {} событий за {} с: {} в секунду", action, EVENTS, String.format("%.2f", seconds),
+                Math.round(EVENTS / seconds));
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.model.Item;
@@ -13,7 +17,9 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.model.ItemRequestAnswer;
 import ru.practicum.shareit.request.services.ItemRequestService;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.ResponseBodyCache;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -21,13 +27,16 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
+@Import(ResponseBodyCache.class)
 public class ItemRequestControllerTest {
     @MockBean
     private ItemRequestService itemRequestService;
@@ -56,13 +65,13 @@ public class ItemRequestControllerTest {
         outDto = new ItemRequestOutDto();
         outDto.setId(1L);
         outDto.setItems(List.of(requestAnswer));
-        outDto.setRequester(user);
+        outDto.setRequester(UserMapper.toUserDto(user));
         outDto.setCreated(LocalDateTime.now().toString());
         outDto.setDescription("description");
 
         dto = new ItemRequestDto();
         dto.setId(1L);
-        dto.setRequester(user);
+        dto.setRequester(UserMapper.toUserDto(user));
         dto.setDescription("description");
         dto.setCreated(LocalDateTime.now().toString());
     }
@@ -87,8 +96,8 @@ public class ItemRequestControllerTest {
 
     @Test
     void foundAllItems() throws Exception {
-        when(itemRequestService.showAllRequests())
-                .thenReturn(List.of(dto));
+        when(itemRequestService.showAllRequests(any(), anyInt()))
+                .thenReturn(Window.from(List.of(dto), i -> ScrollPosition.keyset(), false));
 
         mvc.perform(get("/requests/all")
                         .header("X-Sharer-User-Id", 1L)
@@ -104,8 +113,8 @@ public class ItemRequestControllerTest {
 
     @Test
     void foundItems() throws Exception {
-        when(itemRequestService.showRequests(anyLong()))
-                .thenReturn(List.of(outDto));
+        when(itemRequestService.showRequests(anyLong(), any(), anyInt()))
+                .thenReturn(Window.from(List.of(outDto), i -> ScrollPosition.keyset(), false));
 
         mvc.perform(get("/requests")
                         .header("X-Sharer-User-Id", 1L)
@@ -130,6 +139,7 @@ public class ItemRequestControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
                 .andExpect(jsonPath("$.id", is(Integer.parseInt(String.valueOf(outDto.getId())))))
                 .andExpect(jsonPath("$.requester.id", is(Integer.parseInt(String.valueOf(outDto.getRequester().getId())))))
                 .andExpect(jsonPath("$.requester.email", is(outDto.getRequester().getEmail())))
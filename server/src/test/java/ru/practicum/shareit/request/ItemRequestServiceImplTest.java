@@ -5,18 +5,25 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestOutDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.model.ItemRequestAnswer;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
 import ru.practicum.shareit.request.services.ItemRequestServiceImpl;
+import ru.practicum.shareit.request.services.RequestViewCache;
+import ru.practicum.shareit.user.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -38,6 +45,12 @@ public class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private Outbox outbox;
+
+    @Spy
+    private RequestViewCache requestViewCache = new RequestViewCache(100, Duration.ofMinutes(10));
+
     @InjectMocks
     private ItemRequestServiceImpl itemRequestService;
 
@@ -70,7 +83,7 @@ public class ItemRequestServiceImplTest {
 
         dto = new ItemRequestDto();
         dto.setCreated(LocalDateTime.now().plusDays(1).toString());
-        dto.setRequester(user);
+        dto.setRequester(UserMapper.toUserDto(user));
         dto.setId(1L);
         dto.setDescription("description");
 
@@ -84,7 +97,7 @@ public class ItemRequestServiceImplTest {
         outDto.setItems(List.of(answer));
         outDto.setDescription("description");
         outDto.setCreated(LocalDateTime.now().plusDays(1).toString());
-        outDto.setRequester(user);
+        outDto.setRequester(UserMapper.toUserDto(user));
     }
 
     @Test
@@ -103,13 +116,13 @@ public class ItemRequestServiceImplTest {
 
     @Test
     void showAllRequests() {
-        when(itemRequestRepository.findAll())
+        when(itemRequestRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(11)))
                 .thenReturn(List.of(request));
 
-        List<ItemRequestDto> requests = itemRequestService.showAllRequests();
+        List<ItemRequestDto> requests = itemRequestService.showAllRequests(ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, requests.getFirst().getId());
-        assertEquals(requests.getFirst().getRequester(), request.getRequester());
+        assertEquals(requests.getFirst().getRequester(), UserMapper.toUserDto(request.getRequester()));
         assertEquals(requests.getFirst().getDescription(), request.getDescription());
     }
 
@@ -117,21 +130,21 @@ public class ItemRequestServiceImplTest {
     void showRequests() {
         when(userRepository.findById(anyLong()))
                 .thenReturn(Optional.ofNullable(user));
-        when(itemRequestRepository.findByRequesterId(anyLong()))
+        when(itemRequestRepository.findByRequesterIdAndIdGreaterThanOrderByIdAsc(anyLong(), anyLong(), any()))
                 .thenReturn(List.of(request));
         when(itemRepository.findByRequestIds(any()))
                 .thenReturn(List.of(item));
 
-        List<ItemRequestOutDto> requests = itemRequestService.showRequests(1L);
+        List<ItemRequestOutDto> requests = itemRequestService.showRequests(1L, ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(1L, requests.getFirst().getId());
-        assertEquals(requests.getFirst().getRequester(), request.getRequester());
+        assertEquals(requests.getFirst().getRequester(), UserMapper.toUserDto(request.getRequester()));
         assertEquals(requests.getFirst().getDescription(), request.getDescription());
     }
 
     @Test
     void showRequestsById() {
-        when(itemRequestRepository.findById(anyLong()))
+        when(itemRequestRepository.findDetailedById(anyLong()))
                 .thenReturn(Optional.ofNullable(request));
         when(itemRepository.findByRequestId(any()))
                 .thenReturn(List.of(item));
@@ -139,7 +152,7 @@ public class ItemRequestServiceImplTest {
         ItemRequestOutDto requests = itemRequestService.showRequestsById(1L);
 
         assertEquals(1L, requests.getId());
-        assertEquals(requests.getRequester(), request.getRequester());
+        assertEquals(requests.getRequester(), UserMapper.toUserDto(request.getRequester()));
         assertEquals(requests.getDescription(), request.getDescription());
     }
 }
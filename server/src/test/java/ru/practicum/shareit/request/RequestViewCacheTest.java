@@ -0,0 +1,64 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.outbox.Aggregate;
+import ru.practicum.shareit.outbox.ChangeType;
+import ru.practicum.shareit.outbox.OutboxEvent;
+import ru.practicum.shareit.request.dto.ItemRequestOutDto;
+import ru.practicum.shareit.request.services.RequestViewCache;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RequestViewCacheTest {
+    private final RequestViewCache cache = new RequestViewCache(100, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void repeatedReadsLoadOnce() {
+        ItemRequestOutDto view = cache.get(1L, loader(10L));
+
+        assertSame(view, cache.get(1L, loader(10L)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void changeFeedEvictsUpdatedRequests() {
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(10L));
+
+        cache.onChanges(List.of(new OutboxEvent(Aggregate.REQUEST, 1L, ChangeType.UPDATED, LocalDateTime.now()),
+                new OutboxEvent(Aggregate.ITEM, 2L, ChangeType.UPDATED, LocalDateTime.now())));
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(10L));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void changeFeedEvictsRequestsOfChangedUser() {
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(20L));
+
+        cache.onChanges(List.of(new OutboxEvent(Aggregate.USER, 10L, ChangeType.UPDATED, LocalDateTime.now())));
+        cache.get(1L, loader(10L));
+        cache.get(2L, loader(20L));
+
+        assertEquals(3, loads.get());
+    }
+
+    private Function<Long, ItemRequestOutDto> loader(long requesterId) {
+        return requestId -> {
+            loads.incrementAndGet();
+            return new ItemRequestOutDto(requestId, "Нужна дрель", new UserDto(requesterId, "user@mail.ru", "user"),
+                    LocalDateTime.now().toString(), List.of());
+        };
+    }
+}
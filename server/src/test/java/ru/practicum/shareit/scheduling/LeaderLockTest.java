@@ -0,0 +1,47 @@
+package ru.practicum.shareit.scheduling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+public class LeaderLockTest {
+    private static final String LOCK = "booking-lifecycle";
+
+    @Autowired
+    private SchedulerLockRepository schedulerLockRepository;
+
+    @Test
+    void onlyOneNodeHoldsLease() {
+        LeaderLock first = new LeaderLock(schedulerLockRepository, "first");
+        LeaderLock second = new LeaderLock(schedulerLockRepository, "second");
+
+        assertTrue(first.tryAcquire(LOCK, Duration.ofMinutes(5)));
+        assertFalse(second.tryAcquire(LOCK, Duration.ofMinutes(5)));
+        // Владелец продлевает свою аренду
+        assertTrue(first.tryAcquire(LOCK, Duration.ofMinutes(5)));
+
+        first.release(LOCK);
+        assertTrue(second.tryAcquire(LOCK, Duration.ofMinutes(5)));
+        assertFalse(first.tryAcquire(LOCK, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOver() {
+        LeaderLock first = new LeaderLock(schedulerLockRepository, "first");
+        LeaderLock second = new LeaderLock(schedulerLockRepository, "second");
+
+        assertTrue(first.tryAcquire(LOCK, Duration.ZERO));
+        assertTrue(second.tryAcquire(LOCK, Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void unknownLockIsNeverAcquired() {
+        assertFalse(new LeaderLock(schedulerLockRepository, "first").tryAcquire("unknown", Duration.ofMinutes(5)));
+    }
+}
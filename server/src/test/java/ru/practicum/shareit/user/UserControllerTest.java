@@ -6,6 +6,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -16,6 +18,7 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -60,8 +63,8 @@ public class UserControllerTest {
 
     @Test
     void getUsers() throws Exception {
-        when(userService.getUsers())
-                .thenReturn(List.of(dto));
+        when(userService.getUsers(any(), anyInt()))
+                .thenReturn(Window.from(List.of(dto), i -> ScrollPosition.keyset(), false));
 
         mvc.perform(get("/users")
                         .characterEncoding(StandardCharsets.UTF_8)
@@ -6,8 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.exceptions.NotFoundException;
 import ru.practicum.shareit.exceptions.ValidateException;
+import ru.practicum.shareit.outbox.Outbox;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
@@ -15,12 +20,14 @@ import ru.practicum.shareit.user.services.UserServiceImpl;
 
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -31,6 +38,9 @@ public class UserServerImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private Outbox outbox;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -89,10 +99,10 @@ public class UserServerImplTest {
 
     @Test
     void getUsers() {
-        when(userRepository.findAll())
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any()))
                 .thenReturn(List.of(user));
 
-        List<UserDto> userList = userService.getUsers();
+        List<UserDto> userList = userService.getUsers(ScrollPosition.keyset(), 10).getContent();
 
         assertEquals(userList.size(), 1);
         assertEquals(userList.getFirst().getId(), 1L);
@@ -100,6 +110,25 @@ public class UserServerImplTest {
         assertEquals(userList.getFirst().getName(), user.getName());
     }
 
+    @Test
+    void getUsersContinuesAfterLastIdOfPage() {
+        User next = new User();
+        next.setId(2L);
+        when(userRepository.findByIdGreaterThanOrderByIdAsc(5L, Limit.of(2)))
+                .thenReturn(List.of(user, next));
+
+        Window<UserDto> page = userService.getUsers(ScrollPosition.forward(Map.of("id", 5L)), 1);
+
+        assertEquals(1, page.size());
+        assertTrue(page.hasNext());
+        assertEquals(Map.of("id", 1L), ((KeysetScrollPosition) page.positionAt(0)).getKeys());
+    }
+
+    @Test
+    void getUsersWithWrongPageSize() {
+        assertThrows(ValidateException.class, () -> userService.getUsers(ScrollPosition.keyset(), 0));
+    }
+
     @Test
     void getUserById() {
         when(userRepository.findById(anyLong()))
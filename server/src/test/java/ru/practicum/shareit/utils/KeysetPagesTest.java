@@ -0,0 +1,71 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.repositories.BookingViewRepository;
+import ru.practicum.shareit.exceptions.ValidateException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class KeysetPagesTest {
+    private final LocalDateTime start = LocalDateTime.of(2024, 7, 1, 12, 0);
+
+    @Test
+    void decodeReturnsEncodedPosition() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("start", start);
+        keys.put("id", 7L);
+
+        KeysetScrollPosition position = KeysetPages.decode(KeysetPages.encode(ScrollPosition.forward(keys)),
+                BookingViewRepository.KEYS);
+
+        assertEquals(keys, position.getKeys());
+        assertEquals(7L, KeysetPages.key(position, "id", Long.class));
+    }
+
+    @Test
+    void decodeWithoutTokenReturnsFirstPage() {
+        KeysetScrollPosition position = KeysetPages.decode(null, KeysetPages.ID_KEYS);
+
+        assertTrue(position.isInitial());
+        assertEquals(0L, KeysetPages.afterId(position));
+    }
+
+    @Test
+    void decodeRejectsTokenOfOtherList() {
+        String byId = KeysetPages.encode(ScrollPosition.forward(Map.of("id", 7L)));
+
+        assertThrows(ValidateException.class, () -> KeysetPages.decode(byId, BookingViewRepository.KEYS));
+    }
+
+    @Test
+    void decodeRejectsUnexpectedKey() {
+        String token = KeysetPages.encode(ScrollPosition.forward(Map.of("start", start)));
+
+        assertThrows(ValidateException.class, () -> KeysetPages.decode(token, KeysetPages.ID_KEYS));
+    }
+
+    @Test
+    void decodeRejectsKeyOfOtherType() {
+        String token = KeysetPages.encode(ScrollPosition.forward(Map.of("id", start)));
+
+        assertThrows(ValidateException.class, () -> KeysetPages.decode(token, KeysetPages.ID_KEYS));
+    }
+
+    @Test
+    void decodeRejectsRepeatedKey() {
+        String token = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("1;id=L7;id=L8".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(ValidateException.class, () -> KeysetPages.decode(token, KeysetPages.ID_KEYS));
+    }
+}